@@ -0,0 +1,221 @@
+package geometries;
+
+import primitives.Point;
+import primitives.Ray;
+
+import java.io.Serializable;
+
+/**
+ * Axis-aligned bounding box in 3D space.
+ * Used by the acceleration structures to reject rays that miss a whole group of shapes
+ * before any of the exact intersection calculations is done.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class AABB implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Tolerance added around the box in the slab test, so rays grazing a flat box
+     * (e.g. a polygon lying in an axis plane) are not rejected by rounding errors
+     */
+    private static final double EPS = 1e-7;
+
+    /**
+     * Marker box of the shapes that have no finite bounds (e.g. planes and infinite tubes).
+     * Every ray intersects it.
+     */
+    public static final AABB UNBOUNDED = new AABB(
+            Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY,
+            Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+
+    /** Lower corner coordinates */
+    final double minX, minY, minZ;
+    /** Upper corner coordinates */
+    final double maxX, maxY, maxZ;
+
+    /**
+     * Constructs a box from its lower and upper corner coordinates.
+     *
+     * @param minX lower x value
+     * @param minY lower y value
+     * @param minZ lower z value
+     * @param maxX upper x value
+     * @param maxY upper y value
+     * @param maxZ upper z value
+     */
+    public AABB(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Constructs the smallest box containing all the given points.
+     *
+     * @param points the points to enclose
+     * @throws IllegalArgumentException if no point is given
+     */
+    public AABB(Point... points) {
+        if (points.length == 0) throw new IllegalArgumentException("A bounding box needs at least one point");
+        double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY, z0 = Double.POSITIVE_INFINITY;
+        double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY, z1 = Double.NEGATIVE_INFINITY;
+        for (Point p : points) {
+            x0 = Math.min(x0, p.getX());
+            y0 = Math.min(y0, p.getY());
+            z0 = Math.min(z0, p.getZ());
+            x1 = Math.max(x1, p.getX());
+            y1 = Math.max(y1, p.getY());
+            z1 = Math.max(z1, p.getZ());
+        }
+        minX = x0;
+        minY = y0;
+        minZ = z0;
+        maxX = x1;
+        maxY = y1;
+        maxZ = z1;
+    }
+
+    /**
+     * Returns the lower corner of the box.
+     *
+     * @return the lower corner
+     */
+    public Point getMin() {
+        return new Point(minX, minY, minZ);
+    }
+
+    /**
+     * Returns the upper corner of the box.
+     *
+     * @return the upper corner
+     */
+    public Point getMax() {
+        return new Point(maxX, maxY, maxZ);
+    }
+
+    /**
+     * Checks whether the box has finite bounds.
+     *
+     * @return false for the {@link #UNBOUNDED} marker, true otherwise
+     */
+    public boolean isBounded() {
+        return this != UNBOUNDED;
+    }
+
+    /**
+     * Returns the smallest box containing both this box and the other one.
+     *
+     * @param other the box to unite with
+     * @return the united box
+     */
+    public AABB union(AABB other) {
+        if (this == UNBOUNDED || other == UNBOUNDED) return UNBOUNDED;
+        return new AABB(Math.min(minX, other.minX), Math.min(minY, other.minY), Math.min(minZ, other.minZ),
+                Math.max(maxX, other.maxX), Math.max(maxY, other.maxY), Math.max(maxZ, other.maxZ));
+    }
+
+    /**
+     * Calculates the surface area of the box (used by the surface area heuristic).
+     *
+     * @return the surface area
+     */
+    public double surfaceArea() {
+        double dx = maxX - minX, dy = maxY - minY, dz = maxZ - minZ;
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    /**
+     * Returns the center of the box along one axis.
+     *
+     * @param axis 0 for x, 1 for y, 2 for z
+     * @return the center coordinate
+     */
+    public double center(int axis) {
+        return switch (axis) {
+            case 0 -> (minX + maxX) / 2;
+            case 1 -> (minY + maxY) / 2;
+            default -> (minZ + maxZ) / 2;
+        };
+    }
+
+    /**
+     * Slab test - checks whether the ray passes through the box before the given distance.
+     *
+     * @param ray         the ray to test
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return true if the ray may hit something inside the box, false if it surely misses it
+     */
+    public boolean intersects(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Slab test - calculates the distance along the ray where it enters the box.
+     * A ray starting inside the box enters it at distance 0.
+     *
+     * @param ray         the ray to test
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the entry distance, or positive infinity if the ray misses the box within maxDistance
+     */
+    public double entryDistance(Ray ray, double maxDistance) {
+        if (this == UNBOUNDED) return 0;
+        Point p0 = ray.getP0();
+        Point dir = ray.getDir();
+        double tNear = 0, tFar = maxDistance;
+
+        // x slab
+        double o = p0.getX(), d = dir.getX();
+        if (d == 0) {
+            if (o < minX - EPS || o > maxX + EPS) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minX - EPS - o) / d, t2 = (maxX + EPS - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        // y slab
+        o = p0.getY();
+        d = dir.getY();
+        if (d == 0) {
+            if (o < minY - EPS || o > maxY + EPS) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minY - EPS - o) / d, t2 = (maxY + EPS - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        // z slab
+        o = p0.getZ();
+        d = dir.getZ();
+        if (d == 0) {
+            if (o < minZ - EPS || o > maxZ + EPS) return Double.POSITIVE_INFINITY;
+        } else {
+            double t1 = (minZ - EPS - o) / d, t2 = (maxZ + EPS - o) / d;
+            tNear = Math.max(tNear, Math.min(t1, t2));
+            tFar = Math.min(tFar, Math.max(t1, t2));
+            if (tNear > tFar) return Double.POSITIVE_INFINITY;
+        }
+        return tNear;
+    }
+
+    /**
+     * Keeps the {@link #UNBOUNDED} marker unique when a box is deserialized (e.g. in a render worker)
+     *
+     * @return the marker for an unbounded box, this box otherwise
+     */
+    private Object readResolve() {
+        return minX == Double.NEGATIVE_INFINITY && maxX == Double.POSITIVE_INFINITY ? UNBOUNDED : this;
+    }
+
+    @Override
+    public String toString() {
+        return "AABB{" +
+                "min=(" + minX + "," + minY + "," + minZ + ")" +
+                ", max=(" + maxX + "," + maxY + "," + maxZ + ")" +
+                '}';
+    }
+}
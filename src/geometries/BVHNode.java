@@ -0,0 +1,237 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static geometries.Intersectable.GeoPoint;
+
+/**
+ * A node of a bounding volume hierarchy built with the surface area heuristic (SAH).
+ * Every node holds the shapes that were not pushed further down the tree and up to two children.
+ * A node without a bounding box is always visited - it is used as the root for shapes that
+ * have no finite bounding box.
+ *
+ * @author ori shoshana and amir hay
+ */
+class BVHNode {
+    /** Amount of candidate split positions checked along each axis */
+    private static final int BINS = 12;
+    /** Shapes amount that is always kept in a single leaf */
+    private static final int MIN_LEAF_SIZE = 2;
+    /** Cost of visiting a node relative to the cost of intersecting one shape */
+    private static final double TRAVERSAL_COST = 0.125;
+
+    /** Box containing all shapes of the subtree, null if the subtree is unbounded */
+    final AABB box;
+    /** Shapes kept in this node */
+    final Intersectable[] shapes;
+    /** Children of the node, null for a leaf */
+    final BVHNode left, right;
+
+    private BVHNode(AABB box, Intersectable[] shapes, BVHNode left, BVHNode right) {
+        this.box = box;
+        this.shapes = shapes;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Builds a hierarchy over the given shapes.
+     * Shapes without a bounding box are kept in an unbounded root node.
+     *
+     * @param shapes the shapes to arrange in the hierarchy
+     * @return the root of the hierarchy
+     */
+    static BVHNode build(List<Intersectable> shapes) {
+        List<Intersectable> unbounded = new ArrayList<>();
+        List<Intersectable> bounded = new ArrayList<>(shapes.size());
+        for (Intersectable shape : shapes) {
+            if (!shape.getBoundingBox().isBounded()) unbounded.add(shape);
+            else bounded.add(shape);
+        }
+        BVHNode tree = bounded.isEmpty() ? null : build(bounded.toArray(new Intersectable[0]), 0, bounded.size());
+        if (unbounded.isEmpty() && tree != null) return tree;
+        return new BVHNode(null, unbounded.toArray(new Intersectable[0]), tree, null);
+    }
+
+    /**
+     * Recursively builds the subtree over shapes[from, to) - reorders that range of the array.
+     *
+     * @param shapes bounded shapes
+     * @param from   first index (included)
+     * @param to     last index (excluded)
+     * @return the subtree root
+     */
+    private static BVHNode build(Intersectable[] shapes, int from, int to) {
+        int count = to - from;
+        AABB box = shapes[from].getBoundingBox();
+        double[] cMin = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] cMax = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = from; i < to; ++i) {
+            AABB b = shapes[i].getBoundingBox();
+            box = box.union(b);
+            for (int axis = 0; axis < 3; ++axis) {
+                double c = b.center(axis);
+                cMin[axis] = Math.min(cMin[axis], c);
+                cMax[axis] = Math.max(cMax[axis], c);
+            }
+        }
+        if (count <= MIN_LEAF_SIZE) return leaf(box, shapes, from, to);
+
+        // Find the cheapest split over all the axes by binning the shapes' centroids
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        for (int axis = 0; axis < 3; ++axis) {
+            double extent = cMax[axis] - cMin[axis];
+            if (extent <= 0) continue;
+            int[] binCount = new int[BINS];
+            AABB[] binBox = new AABB[BINS];
+            for (int i = from; i < to; ++i) {
+                AABB b = shapes[i].getBoundingBox();
+                int bin = binOf(b.center(axis), cMin[axis], extent);
+                binCount[bin]++;
+                binBox[bin] = binBox[bin] == null ? b : binBox[bin].union(b);
+            }
+            // sweep from the right to collect the areas of the right sides
+            double[] rightArea = new double[BINS];
+            int[] rightCount = new int[BINS];
+            AABB acc = null;
+            int n = 0;
+            for (int bin = BINS - 1; bin > 0; --bin) {
+                if (binBox[bin] != null) acc = acc == null ? binBox[bin] : acc.union(binBox[bin]);
+                n += binCount[bin];
+                rightArea[bin] = acc == null ? 0 : acc.surfaceArea();
+                rightCount[bin] = n;
+            }
+            // sweep from the left and evaluate the split before each bin
+            acc = null;
+            n = 0;
+            for (int bin = 1; bin < BINS; ++bin) {
+                if (binBox[bin - 1] != null) acc = acc == null ? binBox[bin - 1] : acc.union(binBox[bin - 1]);
+                n += binCount[bin - 1];
+                if (n == 0 || rightCount[bin] == 0) continue;
+                double cost = acc.surfaceArea() * n + rightArea[bin] * rightCount[bin];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        // All centroids coincide - no split can separate the shapes
+        if (bestAxis == -1) return leaf(box, shapes, from, to);
+        double area = box.surfaceArea();
+        if (area > 0 && TRAVERSAL_COST + bestCost / area >= count) return leaf(box, shapes, from, to);
+
+        // Partition the range according to the chosen split
+        double extent = cMax[bestAxis] - cMin[bestAxis];
+        int mid = from;
+        for (int i = from; i < to; ++i) {
+            if (binOf(shapes[i].getBoundingBox().center(bestAxis), cMin[bestAxis], extent) < bestBin) {
+                Intersectable tmp = shapes[i];
+                shapes[i] = shapes[mid];
+                shapes[mid++] = tmp;
+            }
+        }
+        return new BVHNode(box, new Intersectable[0], build(shapes, from, mid), build(shapes, mid, to));
+    }
+
+    private static BVHNode leaf(AABB box, Intersectable[] shapes, int from, int to) {
+        Intersectable[] leafShapes = new Intersectable[to - from];
+        System.arraycopy(shapes, from, leafShapes, 0, to - from);
+        return new BVHNode(box, leafShapes, null, null);
+    }
+
+    private static int binOf(double centroid, double min, double extent) {
+        return Math.min(BINS - 1, (int) (BINS * (centroid - min) / extent));
+    }
+
+    /**
+     * Collects the intersections of the ray with all the shapes of the subtree whose boxes the ray passes through.
+     *
+     * @param ray         the ray to intersect with
+     * @param maxDistance the maximum distance from the start of the ray
+     * @param result      the list to add the intersections to
+     */
+    void findGeoIntersections(Ray ray, double maxDistance, List<GeoPoint> result) {
+        if (box != null && !box.intersects(ray, maxDistance)) return;
+        for (Intersectable shape : shapes) {
+            List<GeoPoint> shapePoints = shape.findGeoIntersections(ray, maxDistance);
+            if (shapePoints != null) result.addAll(shapePoints);
+        }
+        if (left != null) left.findGeoIntersections(ray, maxDistance, result);
+        if (right != null) right.findGeoIntersections(ray, maxDistance, result);
+    }
+
+    /**
+     * Finds the closest intersection of the ray with the shapes of the subtree.
+     * The children are visited nearest first and a child whose box starts beyond
+     * the closest hit found so far is skipped. The box of this node is assumed to be already tested.
+     *
+     * @param ray         the ray to intersect with
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the closest intersection with its ray parameter, or null if there is none
+     */
+    GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        GeoPoint closest = null;
+        for (Intersectable shape : shapes) {
+            GeoPoint geoPoint = shape.findClosestGeoIntersection(ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < maxDistance)) {
+                closest = geoPoint;
+                maxDistance = geoPoint.t;
+            }
+        }
+
+        double tLeft = entryDistance(left, ray, maxDistance);
+        double tRight = entryDistance(right, ray, maxDistance);
+        BVHNode near = tLeft <= tRight ? left : right;
+        BVHNode far = near == left ? right : left;
+        double tNear = Math.min(tLeft, tRight), tFar = Math.max(tLeft, tRight);
+
+        if (tNear != Double.POSITIVE_INFINITY) {
+            GeoPoint geoPoint = near.findClosestGeoIntersection(ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < maxDistance)) {
+                closest = geoPoint;
+                maxDistance = geoPoint.t;
+            }
+        }
+        if (tFar != Double.POSITIVE_INFINITY && tFar <= maxDistance) {
+            GeoPoint geoPoint = far.findClosestGeoIntersection(ray, maxDistance);
+            if (geoPoint != null && (closest == null || geoPoint.t < maxDistance))
+                closest = geoPoint;
+        }
+        return closest;
+    }
+
+    /**
+     * Accumulates the transparency of the shapes of the subtree along a shadow ray,
+     * stopping as soon as the light is blocked.
+     *
+     * @param ray         the shadow ray
+     * @param maxDistance the distance to the light source
+     * @param k           the transparency accumulated so far
+     * @param minK        the threshold below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the light is blocked
+     */
+    Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK) {
+        if (box != null && !box.intersects(ray, maxDistance)) return k;
+        for (Intersectable shape : shapes) {
+            k = shape.findTransparency(ray, maxDistance, k, minK);
+            if (k.lowerThan(minK)) return k;
+        }
+        if (left != null) {
+            k = left.findTransparency(ray, maxDistance, k, minK);
+            if (k.lowerThan(minK)) return k;
+        }
+        return right == null ? k : right.findTransparency(ray, maxDistance, k, minK);
+    }
+
+    private static double entryDistance(BVHNode node, Ray ray, double maxDistance) {
+        if (node == null) return Double.POSITIVE_INFINITY;
+        return node.box == null ? 0 : node.box.entryDistance(ray, maxDistance);
+    }
+}
@@ -4,8 +4,6 @@ import primitives.Point;
 import primitives.Vector;
 import primitives.Ray;
 
-import java.util.List;
-
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
@@ -13,9 +11,12 @@ import static primitives.Util.isZero;
 /** Cylinder class which represents the location of a cylinder in space
  * @author Amir Hay and ori */
 public class Cylinder extends Tube {
+    private static final long serialVersionUID = 1L;
 
     /** the hieght of the Cylinder*/
     private double height;
+    /** the box bounding the Cylinder*/
+    private final AABB box;
 
     /** Constructor to initialize Sphere based object with a radius and height
      * @param radius the radius value
@@ -24,6 +25,19 @@ public class Cylinder extends Tube {
     public Cylinder(double radius,Ray axisRay, double height) {
         super(radius,axisRay);
         this.height = height;
+        // a base disk reaches radius * sqrt(1 - a^2) along an axis, a being that coordinate of the unit axis
+        Point bottom = axisRay.getP0();
+        Point top = axisRay.getPoint(height);
+        Vector axis = axisRay.getDir();
+        double rx = radius * Math.sqrt(Math.max(0, 1 - axis.getX() * axis.getX()));
+        double ry = radius * Math.sqrt(Math.max(0, 1 - axis.getY() * axis.getY()));
+        double rz = radius * Math.sqrt(Math.max(0, 1 - axis.getZ() * axis.getZ()));
+        this.box = new AABB(Math.min(bottom.getX(), top.getX()) - rx,
+                Math.min(bottom.getY(), top.getY()) - ry,
+                Math.min(bottom.getZ(), top.getZ()) - rz,
+                Math.max(bottom.getX(), top.getX()) + rx,
+                Math.max(bottom.getY(), top.getY()) + ry,
+                Math.max(bottom.getZ(), top.getZ()) + rz);
     }
     /**
      * @return the height of the cylinder
@@ -32,6 +46,16 @@ public class Cylinder extends Tube {
         return height;
     }
 
+    /**
+     * Returns the box bounding the cylinder - the box around both base disks.
+     *
+     * @return the bounding box
+     */
+    @Override
+    public AABB getBoundingBox() {
+        return box;
+    }
+
     @Override
     public String toString() {
         return "Cylinder{" +
@@ -75,14 +99,52 @@ public class Cylinder extends Tube {
         return point.subtract(o).normalize();
     }
     /**
-     * Calculates and returns a list of intersection points between the Cylinder and a given Ray.
+     * Calculates the ray parameters of the intersections of the ray with the cylinder - with its side
+     * between the bases and with its base disks (a point on the rim of a base belongs to the base)
      *
-     * @param ray The Ray to intersect with the Cylinder.
-     * @param maxDistance the maximum distance between the point to the start of the ray
-     * @return A list of Point objects representing the intersection points between the Cylinder and the Ray.
+     * @param ray the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the ray parameters of the intersections in front of the ray start and within the distance,
+     * in ascending order, or null if there are none
      */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
-        return null;
+    double[] findDistances(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0(), o = axisRay.getP0();
+        Vector dir = ray.getDir(), axis = axisRay.getDir();
+        double ax = axis.getX(), ay = axis.getY(), az = axis.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double wx = p0.getX() - o.getX(), wy = p0.getY() - o.getY(), wz = p0.getZ() - o.getZ();
+        double da = dx * ax + dy * ay + dz * az, wa = wx * ax + wy * ay + wz * az;
+
+        double[] distances = new double[4];
+        int count = 0;
+        // the side between the bases
+        double[] side = findSideDistances(ray);
+        if (side != null)
+            for (double t : side) {
+                double s = wa + t * da;
+                if (alignZero(s) > 0 && alignZero(s - height) < 0)
+                    distances[count++] = t;
+            }
+        // the bases, unless the ray is parallel to them
+        if (!isZero(da))
+            for (double base : new double[]{0, height}) {
+                double t = (base - wa) / da;
+                double qx = wx + t * dx - base * ax, qy = wy + t * dy - base * ay, qz = wz + t * dz - base * az;
+                if (alignZero(qx * qx + qy * qy + qz * qz - radius * radius) <= 0)
+                    distances[count++] = t;
+            }
+        // sort the candidates, a ray through the rim may find the same point on the side and on a base
+        for (int i = 1; i < count; ++i)
+            for (int j = i; j > 0 && distances[j - 1] > distances[j]; --j) {
+                double t = distances[j];
+                distances[j] = distances[j - 1];
+                distances[j - 1] = t;
+            }
+        int kept = 0;
+        for (int i = 0; i < count; ++i)
+            if (kept == 0 || !isZero(distances[i] - distances[kept - 1]))
+                distances[kept++] = distances[i];
+        return inRange(distances, kept, maxDistance);
     }
 }
@@ -1,20 +1,57 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The Geometries class represents a collection of Intersectable shapes.
  * It implements the Intersectable interface to allow for finding intersections with a given Ray.
+ * The shapes may be traversed either as a flat list or through a bounding volume hierarchy (BVH).
  */
 public class Geometries extends Intersectable {
+    private static final long serialVersionUID = 1L;
 
     List<Intersectable> shapes;
 
+    /**
+     * Whether the intersections are found through the bounding volume hierarchy
+     */
+    private boolean bvh = false;
+    /**
+     * The collections nested in this one, whose additions must also drop the caches of this one
+     */
+    private final List<Geometries> nested = new LinkedList<>();
+    /**
+     * Counts the additions to this collection
+     */
+    private final AtomicLong modifications = new AtomicLong();
+
+    /**
+     * A cached value with the version of the collection it was calculated at
+     *
+     * @param value   the value
+     * @param version the version of the collection before the value was calculated
+     * @param <T>     the type of the value
+     */
+    private record Cached<T>(T value, long version) {
+    }
+
+    /**
+     * The hierarchy over the shapes, built on demand and rebuilt whenever shapes are added
+     * (it is not serialized - a deserialized collection builds its own)
+     */
+    private transient volatile Cached<BVHNode> root = null;
+    /**
+     * The box bounding all the shapes, calculated on demand
+     */
+    private transient volatile Cached<AABB> box = null;
+
     /**
      * Constructs an empty collection of shapes.
      */
@@ -39,6 +76,75 @@ public class Geometries extends Intersectable {
      */
     public void add(Intersectable... geometries) {
         Collections.addAll(shapes, geometries);
+        for (Intersectable geometry : geometries)
+            if (geometry instanceof Geometries collection) nested.add(collection);
+        modifications.incrementAndGet();
+    }
+
+    /**
+     * Returns the version of the collection - the additions to it and to the collections nested in it.
+     * The counters only grow, so the version changes with every addition to any of these collections
+     * and with no other - the cached box and hierarchy are kept with the version they were built at.
+     *
+     * @return the version of the collection
+     */
+    private long version() {
+        long version = modifications.get();
+        for (Geometries collection : nested) version += collection.version();
+        return version;
+    }
+
+    /**
+     * Turns on or off the use of the bounding volume hierarchy.
+     * The hierarchy is built with the surface area heuristic on the first intersection query,
+     * so it is worth turning on for scenes with many shapes. Turning it off falls back
+     * to testing the shapes one by one, which is useful for comparing the results and the timing.
+     *
+     * @param bvh true to traverse the shapes through the hierarchy
+     * @return this Geometries object
+     */
+    public Geometries setBVH(boolean bvh) {
+        this.bvh = bvh;
+        return this;
+    }
+
+    /**
+     * Returns the box bounding all the shapes in the collection.
+     * A nested collection whose box the ray misses is skipped as a whole.
+     *
+     * @return the bounding box, or {@link AABB#UNBOUNDED} if the collection is empty or contains an unbounded shape
+     */
+    @Override
+    public AABB getBoundingBox() {
+        Cached<AABB> cached = box;
+        long version = version();
+        if (cached != null && cached.version() == version) return cached.value();
+        AABB result = null;
+        for (Intersectable geometry : shapes) {
+            AABB shapeBox = geometry.getBoundingBox();
+            result = result == null ? shapeBox : result.union(shapeBox);
+        }
+        if (result == null) result = AABB.UNBOUNDED;
+        box = new Cached<>(result, version);
+        return result;
+    }
+
+    /**
+     * Returns the bounding volume hierarchy of the shapes, building it if needed.
+     *
+     * @return the root of the hierarchy
+     */
+    BVHNode getHierarchy() {
+        Cached<BVHNode> result = root;
+        long version = version();
+        if (result == null || result.version() != version) {
+            synchronized (this) {
+                result = root;
+                if (result == null || result.version() != version)
+                    root = result = new Cached<>(BVHNode.build(shapes), version);
+            }
+        }
+        return result.value();
     }
 
     /**
@@ -50,10 +156,14 @@ public class Geometries extends Intersectable {
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double max) {
         List<GeoPoint> result = new LinkedList<>();
-        for (Intersectable geometry : shapes) {
-            List<GeoPoint> shapePoints = geometry.findGeoIntersectionsHelper(ray,max);
-            if (shapePoints != null) {
-                result.addAll(shapePoints);
+        if (bvh) {
+            getHierarchy().findGeoIntersections(ray, max, result);
+        } else {
+            for (Intersectable geometry : shapes) {
+                List<GeoPoint> shapePoints = geometry.findGeoIntersections(ray,max);
+                if (shapePoints != null) {
+                    result.addAll(shapePoints);
+                }
             }
         }
         if (result.isEmpty()){
@@ -62,4 +172,49 @@ public class Geometries extends Intersectable {
         return result;
     }
 
-}
\ No newline at end of file
+    /**
+     * Finds the closest intersection of the given Ray with the shapes in the collection.
+     * Every hit shrinks the distance range for the following shapes, so farther shapes are culled.
+     *
+     * @param ray the Ray to find intersections with
+     * @param max the maximum distance from the start of the ray
+     * @return the closest intersection with its ray parameter, or null if there are no intersections
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double max) {
+        if (bvh)
+            return getHierarchy().findClosestGeoIntersection(ray, max);
+        GeoPoint closest = null;
+        for (Intersectable geometry : shapes) {
+            GeoPoint geoPoint = geometry.findClosestGeoIntersection(ray, max);
+            if (geoPoint != null && (closest == null || geoPoint.t < max)) {
+                closest = geoPoint;
+                max = geoPoint.t;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Accumulates the transparency of the shapes along the shadow ray,
+     * stopping as soon as the light is blocked.
+     *
+     * @param ray the shadow ray
+     * @param max the distance to the light source
+     * @param k the transparency accumulated so far
+     * @param minK the threshold below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the light is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double max, Double3 k, double minK) {
+        if (bvh)
+            return getHierarchy().findTransparency(ray, max, k, minK);
+        for (Intersectable geometry : shapes) {
+            k = geometry.findTransparency(ray, max, k, minK);
+            if (k.lowerThan(minK))
+                return k;
+        }
+        return k;
+    }
+
+}
@@ -1,8 +1,10 @@
 package geometries;
 
 import primitives.Color;
+import primitives.Double3;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 
 /**
@@ -11,6 +13,8 @@ import primitives.Vector;
  * @author Amir Hay and ori
  */
 public abstract class Geometry extends Intersectable{
+    private static final long serialVersionUID = 1L;
+
     protected Color emission = Color.BLACK;
 
     private Material material = new Material();
@@ -56,4 +60,21 @@ public abstract class Geometry extends Intersectable{
      * @return The normal vector as a {@link Vector} object.
      */
     public abstract Vector getNormal(Point point);
+
+    /**
+     * If a single intersection with this geometry already blocks the light (e.g. an opaque geometry),
+     * it is enough to know whether the ray hits it at all.
+     *
+     * @param ray ray from a point towards the light source
+     * @param maxDistance the distance to the light source
+     * @param k the transparency accumulated so far
+     * @param minK the threshold below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the light is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 k, double minK) {
+        if (k.product(getMaterial().kT).lowerThan(minK))
+            return findClosestGeoIntersectionHelper(ray, maxDistance) == null ? k : Double3.ZERO;
+        return super.findTransparencyHelper(ray, maxDistance, k, minK);
+    }
 }
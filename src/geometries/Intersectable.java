@@ -1,15 +1,18 @@
 
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * The abstract base class for all intersectable geometry objects in 3D space.
  */
-public abstract class Intersectable {
+public abstract class Intersectable implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /**
      * A class representing a point on a geometry object and the geometry object itself.
@@ -17,6 +20,11 @@ public abstract class Intersectable {
     public static class GeoPoint {
         public Geometry geometry;
         public Point point;
+        /**
+         * The ray parameter of the point - its distance from the start of the ray.
+         * Filled by the closest-hit query, NaN when unknown.
+         */
+        public double t = Double.NaN;
 
         /**
          * Constructs a new GeoPoint with the given geometry object and point.
@@ -29,6 +37,19 @@ public abstract class Intersectable {
             this.point = point;
         }
 
+        /**
+         * Constructs a new GeoPoint with the given geometry object, point and ray parameter.
+         *
+         * @param geometry The geometry object.
+         * @param point    The point on the geometry object.
+         * @param t        The distance of the point from the start of the ray.
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
+            this.geometry = geometry;
+            this.point = point;
+            this.t = t;
+        }
+
         /**
          * Compares this GeoPoint to the given object for equality.
          *
@@ -87,9 +108,99 @@ public abstract class Intersectable {
      * @return immutable list of intersection geo points {@link GeoPoint}
      */
     public final List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
+        // cheap slab test before the exact intersection calculation
+        if (!getBoundingBox().intersects(ray, maxDistance))
+            return null;
         return findGeoIntersectionsHelper(ray, maxDistance);
     }
 
+    /**
+     * find the closest intersection point {@link GeoPoint} with a specific ray{@link Ray}
+     * without building the list of all the intersections
+     * @param ray ray pointing towards the graphic object
+     * @return the closest geo point with its ray parameter, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * find the closest intersection point {@link GeoPoint} with a specific ray{@link Ray} in a range of distance
+     * without building the list of all the intersections
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest geo point with its ray parameter, or null if there is no intersection
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        if (!getBoundingBox().intersects(ray, maxDistance))
+            return null;
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * helper of findClosestGeoIntersection.
+     * The default implementation picks the closest point of {@link #findGeoIntersectionsHelper(Ray, double)},
+     * shapes that can find their closest point directly override it.
+     * @param ray ray pointing towards the graphic object
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest geo point with its ray parameter, or null if there is no intersection
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return null;
+        GeoPoint closest = ray.findClosestGeoPoint(intersections);
+        if (closest != null)
+            closest.t = closest.point.distance(ray.getP0());
+        return closest;
+    }
+
+    /**
+     * Any-hit query for shadow rays - calculates the transparency of the objects along the ray
+     * by multiplying the kT of every intersection within the range.
+     * The traversal stops as soon as the accumulated transparency drops below the threshold,
+     * e.g. at the first opaque blocker.
+     * @param ray ray from a point towards the light source
+     * @param maxDistance the distance to the light source
+     * @param k the transparency accumulated so far
+     * @param minK the threshold below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the light is blocked
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance, Double3 k, double minK) {
+        if (!getBoundingBox().intersects(ray, maxDistance))
+            return k;
+        return findTransparencyHelper(ray, maxDistance, k, minK);
+    }
+
+    /**
+     * helper of findTransparency
+     * @param ray ray from a point towards the light source
+     * @param maxDistance the distance to the light source
+     * @param k the transparency accumulated so far
+     * @param minK the threshold below which the light is considered blocked
+     * @return the accumulated transparency, or {@link Double3#ZERO} if the light is blocked
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 k, double minK) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return k;
+        for (GeoPoint intersection : intersections) {
+            k = k.product(intersection.geometry.getMaterial().kT);
+            if (k.lowerThan(minK))
+                return Double3.ZERO;
+        }
+        return k;
+    }
+
+    /**
+     * Returns the axis-aligned box bounding this object.
+     * It is used to reject rays that miss the object before the exact intersection calculation
+     * and to arrange the objects in the acceleration structures.
+     *
+     * @return the bounding box, or {@link AABB#UNBOUNDED} if the object is infinite
+     */
+    public abstract AABB getBoundingBox();
+
     /**
      * helper of findGeoIntersections
      * @param ray ray pointing towards the graphic object
@@ -0,0 +1,610 @@
+package geometries;
+
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * An indexed triangle mesh - the vertex positions are kept in a single array of coordinates and the
+ * triangles in an array of vertex indices, so a triangle costs a few dozen bytes instead of a
+ * {@link Triangle} object with its points, plane and bounding box.
+ * <p>
+ * The mesh has its own bounding volume hierarchy over its triangles, stored in flat arrays
+ * (float bounds rounded outwards), and is intersected with the Moller-Trumbore algorithm.
+ * All the triangles share the material and the emission of the mesh. An intersection point refers
+ * to a light-weight {@link Face} of the mesh, which knows the normal of the triangle hit.
+ * Triangles are double-sided and are hit as a {@link Triangle} is - a ray through an edge or a vertex of
+ * a triangle, or parallel to it, misses it.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class Mesh extends Geometry {
+    private static final long serialVersionUID = 1L;
+
+    /** Amount of candidate split positions checked along each axis */
+    private static final int BINS = 12;
+    /** Triangles amount that is always kept in a single leaf */
+    private static final int MIN_LEAF_SIZE = 4;
+    /** Cost of visiting a node relative to the cost of intersecting one triangle */
+    private static final double TRAVERSAL_COST = 0.125;
+    /** Depth limit of the hierarchy - deeper ranges are kept in a single leaf */
+    private static final int MAX_DEPTH = 64;
+    /** Tolerance added around the node boxes in the slab test (as in {@link AABB}) */
+    private static final double EPS = 1e-7;
+
+    /** Vertex coordinates - x, y, z of every vertex */
+    private final double[] vertices;
+    /** Vertex indices - three of every triangle */
+    private final int[] indices;
+    /** Reciprocal of twice the area of every triangle, 0 for a degenerate triangle */
+    private final double[] inverseAreas;
+    /** The triangles in the order of the leaves of the hierarchy */
+    private final int[] order;
+    /** Bounds of the hierarchy nodes - min x, y, z and max x, y, z of every node */
+    private float[] bounds;
+    /** Links of the hierarchy nodes - for an inner node the right child (the left one follows the node)
+     * and 0, for a leaf the position of its first triangle in {@link #order} and the amount of its triangles */
+    private int[] nodes;
+    private int nodesCount = 0;
+    private final AABB box;
+
+    /**
+     * Constructs a mesh from its vertex and index buffers. The buffers are not copied,
+     * so they must not be changed afterwards
+     *
+     * @param vertices the x, y, z coordinates of every vertex
+     * @param indices  the indices of the three vertices of every triangle
+     * @throws IllegalArgumentException if there are no triangles, the buffer lengths are not multiples of 3
+     *                                  or an index is out of the vertices
+     */
+    public Mesh(double[] vertices, int[] indices) {
+        if (vertices.length % 3 != 0 || indices.length % 3 != 0)
+            throw new IllegalArgumentException("Vertex and index buffers must hold triples");
+        if (indices.length == 0)
+            throw new IllegalArgumentException("A mesh must have at least one triangle");
+        int vertexCount = vertices.length / 3;
+        for (int index : indices)
+            if (index < 0 || index >= vertexCount)
+                throw new IllegalArgumentException("Vertex index out of range: " + index);
+        this.vertices = vertices;
+        this.indices = indices;
+
+        int count = indices.length / 3;
+        order = new int[count];
+        inverseAreas = new double[count];
+        // the bounds and centroids of the triangles are kept in floats only while the hierarchy is built
+        float[] triangleBounds = new float[6 * count];
+        float[] centroids = new float[3 * count];
+        for (int tri = 0; tri < count; ++tri) {
+            order[tri] = tri;
+            int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+            double area = faceNormalLength(a, b, c);
+            inverseAreas[tri] = area == 0 ? 0 : 1 / area;
+            for (int axis = 0; axis < 3; ++axis) {
+                double va = vertices[a + axis], vb = vertices[b + axis], vc = vertices[c + axis];
+                triangleBounds[6 * tri + axis] = Math.nextDown((float) Math.min(va, Math.min(vb, vc)));
+                triangleBounds[6 * tri + 3 + axis] = Math.nextUp((float) Math.max(va, Math.max(vb, vc)));
+                centroids[3 * tri + axis] = (float) ((va + vb + vc) / 3);
+            }
+        }
+        int capacity = Math.max(1, count / MIN_LEAF_SIZE);
+        bounds = new float[6 * capacity];
+        nodes = new int[2 * capacity];
+        build(0, count, triangleBounds, centroids, 0);
+        bounds = Arrays.copyOf(bounds, 6 * nodesCount);
+        nodes = Arrays.copyOf(nodes, 2 * nodesCount);
+        box = new AABB(bounds[0], bounds[1], bounds[2], bounds[3], bounds[4], bounds[5]);
+    }
+
+    /**
+     * @return the amount of triangles of the mesh
+     */
+    public int getTrianglesCount() {
+        return indices.length / 3;
+    }
+
+    /**
+     * @return the amount of vertices of the mesh
+     */
+    public int getVerticesCount() {
+        return vertices.length / 3;
+    }
+
+    // ***************** Hierarchy building ******************** //
+
+    /**
+     * Recursively builds the subtree over order[from, to) with the binned surface area heuristic -
+     * reorders that range of the array.
+     *
+     * @param from           first position (included)
+     * @param to             last position (excluded)
+     * @param triangleBounds the bounds of the triangles in {@link #order}, rounded outwards to floats
+     * @param centroids      the centroids of the triangles in {@link #order}
+     * @param depth          the depth of the subtree root
+     * @return the index of the subtree root
+     */
+    private int build(int from, int to, float[] triangleBounds, float[] centroids, int depth) {
+        int node = addNode();
+        float[] centroidBox = emptyFloatBox();
+        float[] nodeBox = emptyFloatBox();
+        for (int i = from; i < to; ++i) {
+            growByFloats(nodeBox, 0, triangleBounds, 6 * i);
+            growByPoint(centroidBox, centroids, 3 * i);
+        }
+        System.arraycopy(nodeBox, 0, bounds, 6 * node, 6);
+        int count = to - from;
+        if (count <= MIN_LEAF_SIZE || depth >= MAX_DEPTH) return leaf(node, from, count);
+
+        // Find the cheapest split over all the axes by binning the triangles' centroids
+        double bestCost = Double.POSITIVE_INFINITY;
+        int bestAxis = -1, bestBin = -1;
+        int[] binCount = new int[BINS];
+        float[] binBounds = new float[6 * BINS];
+        double[] rightArea = new double[BINS];
+        int[] rightCount = new int[BINS];
+        float[] acc = new float[6];
+        for (int axis = 0; axis < 3; ++axis) {
+            float min = centroidBox[axis], extent = centroidBox[3 + axis] - min;
+            if (extent <= 0) continue;
+            Arrays.fill(binCount, 0);
+            for (int bin = 0; bin < BINS; ++bin) resetFloatBox(binBounds, 6 * bin);
+            for (int i = from; i < to; ++i) {
+                int bin = binOf(centroids[3 * i + axis], min, extent);
+                binCount[bin]++;
+                growByFloats(binBounds, 6 * bin, triangleBounds, 6 * i);
+            }
+            // sweep from the right to collect the areas of the right sides
+            resetFloatBox(acc, 0);
+            int n = 0;
+            for (int bin = BINS - 1; bin > 0; --bin) {
+                if (binCount[bin] > 0) growByFloats(acc, 0, binBounds, 6 * bin);
+                n += binCount[bin];
+                rightArea[bin] = n == 0 ? 0 : surfaceArea(acc);
+                rightCount[bin] = n;
+            }
+            // sweep from the left and evaluate the split before each bin
+            resetFloatBox(acc, 0);
+            n = 0;
+            for (int bin = 1; bin < BINS; ++bin) {
+                if (binCount[bin - 1] > 0) growByFloats(acc, 0, binBounds, 6 * (bin - 1));
+                n += binCount[bin - 1];
+                if (n == 0 || rightCount[bin] == 0) continue;
+                double cost = surfaceArea(acc) * n + rightArea[bin] * rightCount[bin];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestBin = bin;
+                }
+            }
+        }
+
+        // All centroids coincide - no split can separate the triangles
+        if (bestAxis == -1) return leaf(node, from, count);
+        double area = surfaceArea(nodeBox);
+        if (area > 0 && TRAVERSAL_COST + bestCost / area >= count) return leaf(node, from, count);
+
+        // Partition the range according to the chosen split
+        float min = centroidBox[bestAxis], extent = centroidBox[3 + bestAxis] - min;
+        int mid = from;
+        for (int i = from; i < to; ++i) {
+            if (binOf(centroids[3 * i + bestAxis], min, extent) < bestBin)
+                swap(i, mid++, triangleBounds, centroids);
+        }
+        build(from, mid, triangleBounds, centroids, depth + 1);
+        // the children may grow the arrays, so the link is stored only once they are built
+        int right = build(mid, to, triangleBounds, centroids, depth + 1);
+        nodes[2 * node] = right;
+        nodes[2 * node + 1] = 0;
+        return node;
+    }
+
+    /**
+     * Swaps two triangles in the order of the leaves, together with their bounds and centroids
+     * (which are kept in that order too, so building reads them sequentially)
+     */
+    private void swap(int i, int j, float[] triangleBounds, float[] centroids) {
+        int tmp = order[i];
+        order[i] = order[j];
+        order[j] = tmp;
+        for (int k = 0; k < 6; ++k) {
+            float value = triangleBounds[6 * i + k];
+            triangleBounds[6 * i + k] = triangleBounds[6 * j + k];
+            triangleBounds[6 * j + k] = value;
+        }
+        for (int k = 0; k < 3; ++k) {
+            float value = centroids[3 * i + k];
+            centroids[3 * i + k] = centroids[3 * j + k];
+            centroids[3 * j + k] = value;
+        }
+    }
+
+    private int addNode() {
+        if (nodesCount * 2 == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+        }
+        return nodesCount++;
+    }
+
+    private int leaf(int node, int from, int count) {
+        nodes[2 * node] = from;
+        nodes[2 * node + 1] = count;
+        return node;
+    }
+
+    private static int binOf(float centroid, float min, float extent) {
+        return Math.min(BINS - 1, (int) (BINS * (centroid - min) / extent));
+    }
+
+    private static float[] emptyFloatBox() {
+        float[] box = new float[6];
+        resetFloatBox(box, 0);
+        return box;
+    }
+
+    private static void resetFloatBox(float[] boxes, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            boxes[offset + axis] = Float.POSITIVE_INFINITY;
+            boxes[offset + 3 + axis] = Float.NEGATIVE_INFINITY;
+        }
+    }
+
+    private static void growByPoint(float[] box, float[] coordinates, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            float value = coordinates[offset + axis];
+            if (value < box[axis]) box[axis] = value;
+            if (value > box[3 + axis]) box[3 + axis] = value;
+        }
+    }
+
+    private static void growByFloats(float[] boxes, int offset, float[] others, int otherOffset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            if (others[otherOffset + axis] < boxes[offset + axis])
+                boxes[offset + axis] = others[otherOffset + axis];
+            if (others[otherOffset + 3 + axis] > boxes[offset + 3 + axis])
+                boxes[offset + 3 + axis] = others[otherOffset + 3 + axis];
+        }
+    }
+
+    private static double surfaceArea(float[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        return 2 * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private static double[] emptyBox() {
+        return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    private static void growByPoint(double[] box, double[] coordinates, int offset) {
+        for (int axis = 0; axis < 3; ++axis) {
+            box[axis] = Math.min(box[axis], coordinates[offset + axis]);
+            box[3 + axis] = Math.max(box[3 + axis], coordinates[offset + axis]);
+        }
+    }
+
+    /**
+     * Calculates the length of the cross product of the edges of a triangle (twice its area)
+     *
+     * @param a the offset of the coordinates of the first vertex
+     * @param b the offset of the coordinates of the second vertex
+     * @param c the offset of the coordinates of the third vertex
+     * @return the length of the cross product
+     */
+    private double faceNormalLength(int a, int b, int c) {
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        return Math.sqrt(nx * nx + ny * ny + nz * nz);
+    }
+
+    private void growByTriangle(double[] box, int tri) {
+        for (int k = 0; k < 3; ++k)
+            growByPoint(box, vertices, 3 * indices[3 * tri + k]);
+    }
+
+    // ***************** Intersections ******************** //
+
+    /**
+     * Intersects the ray with a single triangle of the mesh (Moller-Trumbore)
+     *
+     * @param tri         the triangle
+     * @param ray         the ray origin and direction coordinates - ox, oy, oz, dx, dy, dz
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the ray parameter of the intersection, NaN if the ray misses the triangle within the distance
+     */
+    private double intersect(int tri, double[] ray, double maxDistance) {
+        int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double dx = ray[3], dy = ray[4], dz = ray[5];
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // the ray is parallel to the triangle, or the triangle is degenerate - the same test as Triangle's
+        if (isZero(det * inverseAreas[tri])) return Double.NaN;
+        double inv = 1 / det;
+        double sx = ray[0] - ax, sy = ray[1] - ay, sz = ray[2] - az;
+        double u = (sx * px + sy * py + sz * pz) * inv;
+        if (u <= 0 || u >= 1) return Double.NaN;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inv;
+        if (v <= 0 || u + v >= 1) return Double.NaN;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inv);
+        return t <= 0 || alignZero(t - maxDistance) > 0 ? Double.NaN : t;
+    }
+
+    /**
+     * Slab test of a hierarchy node
+     *
+     * @param node        the node
+     * @param ray         the ray origin and direction coordinates - ox, oy, oz, dx, dy, dz
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the distance where the ray enters the node box, or positive infinity if it misses the box
+     */
+    private double entryDistance(int node, double[] ray, double maxDistance) {
+        double tNear = 0, tFar = maxDistance;
+        for (int axis = 0; axis < 3; ++axis) {
+            double o = ray[axis], d = ray[3 + axis];
+            double min = bounds[6 * node + axis] - EPS, max = bounds[6 * node + 3 + axis] + EPS;
+            if (d == 0) {
+                if (o < min || o > max) return Double.POSITIVE_INFINITY;
+            } else {
+                double t1 = (min - o) / d, t2 = (max - o) / d;
+                tNear = Math.max(tNear, Math.min(t1, t2));
+                tFar = Math.min(tFar, Math.max(t1, t2));
+                if (tNear > tFar) return Double.POSITIVE_INFINITY;
+            }
+        }
+        return tNear;
+    }
+
+    private static double[] coordinates(Ray ray) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        return new double[]{p0.getX(), p0.getY(), p0.getZ(), dir.getX(), dir.getY(), dir.getZ()};
+    }
+
+    @Override
+    public AABB getBoundingBox() {
+        return box;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double[] r = coordinates(ray);
+        List<GeoPoint> result = new ArrayList<>();
+        int[] stack = new int[MAX_DEPTH + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entryDistance(node, r, maxDistance) == Double.POSITIVE_INFINITY) continue;
+            int count = nodes[2 * node + 1];
+            if (count == 0) {
+                stack[top++] = nodes[2 * node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            for (int i = nodes[2 * node], end = i + count; i < end; ++i) {
+                double t = intersect(order[i], r, maxDistance);
+                if (!Double.isNaN(t)) result.add(new GeoPoint(new Face(this, order[i]), ray.getPoint(t), t));
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    /**
+     * Finds the closest intersection through the hierarchy - the children of a node are visited
+     * nearest first and a node whose box starts beyond the closest hit found so far is skipped.
+     *
+     * @param ray         the ray to intersect with
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the closest intersection with its ray parameter, or null if there is none
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] r = coordinates(ray);
+        int[] stack = new int[MAX_DEPTH + 2];
+        double[] entries = new double[MAX_DEPTH + 2];
+        int top = 0;
+        stack[top] = 0;
+        entries[top++] = entryDistance(0, r, maxDistance);
+        int hit = -1;
+        double closest = maxDistance;
+        while (top > 0) {
+            int node = stack[--top];
+            if (entries[top] == Double.POSITIVE_INFINITY || entries[top] > closest) continue;
+            int count = nodes[2 * node + 1];
+            if (count == 0) {
+                int near = node + 1, far = nodes[2 * node];
+                double tNear = entryDistance(near, r, closest), tFar = entryDistance(far, r, closest);
+                if (tFar < tNear) {
+                    int n = near;
+                    near = far;
+                    far = n;
+                    double t = tNear;
+                    tNear = tFar;
+                    tFar = t;
+                }
+                // the far child is pushed first, so the near one is visited first
+                stack[top] = far;
+                entries[top++] = tFar;
+                stack[top] = near;
+                entries[top++] = tNear;
+                continue;
+            }
+            for (int i = nodes[2 * node], end = i + count; i < end; ++i) {
+                double t = intersect(order[i], r, closest);
+                if (!Double.isNaN(t) && (hit == -1 || t < closest)) {
+                    hit = order[i];
+                    closest = t;
+                }
+            }
+        }
+        return hit == -1 ? null : new GeoPoint(new Face(this, hit), ray.getPoint(closest), closest);
+    }
+
+    // ***************** Faces ******************** //
+
+    /**
+     * Calculates the normal of a triangle of the mesh - oriented by the order of its vertices,
+     * as the normal of a {@link Triangle} with the same vertices
+     *
+     * @param tri the triangle
+     * @return the unit normal
+     */
+    private Vector faceNormal(int tri) {
+        int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+        return new Vector(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).normalize();
+    }
+
+    /**
+     * Returns the normal of the mesh at a point - the normal of the triangle closest to the point
+     * among the triangles containing its projection. It is a linear search - the intersection points
+     * of the mesh refer to their {@link Face}, which knows its normal directly.
+     *
+     * @param point the point on the mesh
+     * @return the unit normal
+     * @throws IllegalArgumentException if the point is not on any triangle of the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        double px = point.getX(), py = point.getY(), pz = point.getZ();
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int tri = 0; tri < getTrianglesCount(); ++tri) {
+            int a = 3 * indices[3 * tri], b = 3 * indices[3 * tri + 1], c = 3 * indices[3 * tri + 2];
+            double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1], e1z = vertices[b + 2] - vertices[a + 2];
+            double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1], e2z = vertices[c + 2] - vertices[a + 2];
+            double sx = px - vertices[a], sy = py - vertices[a + 1], sz = pz - vertices[a + 2];
+            // barycentric coordinates of the projection of the point on the plane of the triangle
+            double d11 = e1x * e1x + e1y * e1y + e1z * e1z, d12 = e1x * e2x + e1y * e2y + e1z * e2z;
+            double d22 = e2x * e2x + e2y * e2y + e2z * e2z;
+            double s1 = sx * e1x + sy * e1y + sz * e1z, s2 = sx * e2x + sy * e2y + sz * e2z;
+            double denominator = d11 * d22 - d12 * d12;
+            if (isZero(denominator)) continue;
+            double u = (d22 * s1 - d12 * s2) / denominator, v = (d11 * s2 - d12 * s1) / denominator;
+            if (u < -EPS || v < -EPS || u + v > 1 + EPS) continue;
+            double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+            double distance = Math.abs(sx * nx + sy * ny + sz * nz) / Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = tri;
+            }
+        }
+        if (best == -1) throw new IllegalArgumentException("The point is not on the mesh");
+        return faceNormal(best);
+    }
+
+    /**
+     * A triangle of a mesh, referred to by the intersection points of the mesh.
+     * It shares the material and the emission of its mesh (setting them on a face sets them on the mesh),
+     * and calculates its normal once.
+     */
+    public static final class Face extends Geometry {
+        private static final long serialVersionUID = 1L;
+
+        private final Mesh mesh;
+        private final int index;
+        private Vector normal;
+
+        private Face(Mesh mesh, int index) {
+            this.mesh = mesh;
+            this.index = index;
+        }
+
+        /**
+         * @return the mesh of the triangle
+         */
+        public Mesh getMesh() {
+            return mesh;
+        }
+
+        /**
+         * @return the index of the triangle in the mesh
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        @Override
+        public Vector getNormal(Point point) {
+            if (normal == null) normal = mesh.faceNormal(index);
+            return normal;
+        }
+
+        @Override
+        public Material getMaterial() {
+            return mesh.getMaterial();
+        }
+
+        @Override
+        public Color getEmission() {
+            return mesh.getEmission();
+        }
+
+        /**
+         * Sets the material of the mesh - all the triangles of a mesh share its material
+         *
+         * @param material the material
+         * @return the face itself
+         */
+        @Override
+        public Face setMaterial(Material material) {
+            mesh.setMaterial(material);
+            return this;
+        }
+
+        /**
+         * Sets the emission of the mesh - all the triangles of a mesh share its emission
+         *
+         * @param emission the emission color
+         * @return the face itself
+         */
+        @Override
+        public Face setEmission(Color emission) {
+            mesh.setEmission(emission);
+            return this;
+        }
+
+        @Override
+        public AABB getBoundingBox() {
+            double[] faceBox = emptyBox();
+            mesh.growByTriangle(faceBox, index);
+            return new AABB(faceBox[0], faceBox[1], faceBox[2], faceBox[3], faceBox[4], faceBox[5]);
+        }
+
+        @Override
+        protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            double t = mesh.intersect(index, coordinates(ray), maxDistance);
+            return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj || obj instanceof Face other && other.mesh == mesh && other.index == index;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(mesh) * 31 + index;
+        }
+
+        @Override
+        public String toString() {
+            return "Face{index=" + index + '}';
+        }
+    }
+}
@@ -0,0 +1,695 @@
+package geometries;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * MeshLoader reads a {@link Mesh} from a Wavefront OBJ file or a binary PLY file.
+ * <p>
+ * The files are memory-mapped and parsed straight from the mapped bytes into the vertex and index
+ * buffers of the mesh - no line or number is turned into a String, so a large model is loaded without
+ * allocating temporary objects per vertex. An OBJ file is split into chunks on line boundaries, and the
+ * chunks may be parsed in parallel.
+ * <p>
+ * Only the vertex positions and the faces are read - texture coordinates, normals, groups and materials
+ * are skipped. Polygonal faces are split into triangle fans.
+ *
+ * @author ori shoshana and amir hay
+ */
+public final class MeshLoader {
+    /** Default size of the chunks an OBJ file is split into */
+    private static final long CHUNK_SIZE = 1L << 26;
+    /** Size of the regions a PLY file is mapped in */
+    private static final long WINDOW_SIZE = 1L << 30;
+    /** Exact powers of 10 - a number with up to 15 digits divided or multiplied by them is correctly rounded */
+    private static final double[] POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private MeshLoader() {
+    }
+
+    /**
+     * Loads a mesh from an OBJ or a PLY file, by the extension of the file name.
+     * OBJ files are parsed in parallel
+     *
+     * @param file the file
+     * @return the mesh
+     * @throws IllegalArgumentException if the file type is unknown or its content is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static Mesh load(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".obj")) return loadObj(file, true);
+        if (name.endsWith(".ply")) return loadPly(file);
+        throw new IllegalArgumentException("Unknown mesh file type: " + file);
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ file
+     *
+     * @param file     the file
+     * @param parallel true to parse the chunks of the file in parallel
+     * @return the mesh
+     * @throws IllegalArgumentException if the content of the file is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static Mesh loadObj(Path file, boolean parallel) {
+        return loadObj(file, parallel, CHUNK_SIZE);
+    }
+
+    /**
+     * Loads a mesh from a Wavefront OBJ file split into chunks of a given size
+     *
+     * @param file      the file
+     * @param parallel  true to parse the chunks of the file in parallel
+     * @param chunkSize the nominal size of a chunk in bytes
+     * @return the mesh
+     */
+    static Mesh loadObj(Path file, boolean parallel, long chunkSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, chunkSize);
+            IntStream chunks = IntStream.range(0, bounds.length - 1);
+            if (parallel) chunks = chunks.parallel();
+            ObjChunk[] parsed = chunks.mapToObj(i -> {
+                try {
+                    return new ObjChunk(channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]),
+                            bounds[i]).parse();
+                } catch (IOException e) {
+                    throw new IllegalStateException("Reading the mesh " + file + " failed", e);
+                }
+            }).toArray(ObjChunk[]::new);
+            return merge(parsed);
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading the mesh " + file + " failed", e);
+        }
+    }
+
+    /**
+     * Loads a mesh from a binary PLY file (little or big endian). The positions are read from the x, y, z
+     * properties of the vertex element and the faces from the vertex_indices list of the face element;
+     * other elements and properties are skipped
+     *
+     * @param file the file
+     * @return the mesh
+     * @throws IllegalArgumentException if the file is not a binary PLY file or its content is malformed
+     * @throws IllegalStateException    if the file cannot be read
+     */
+    public static Mesh loadPly(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedInput in = new MappedInput(channel);
+            List<PlyElement> elements = readPlyHeader(in);
+            double[] vertices = null;
+            IntList indices = null;
+            for (PlyElement element : elements)
+                switch (element.name) {
+                    case "vertex" -> vertices = readPlyVertices(in, element);
+                    case "face" -> indices = readPlyFaces(in, element);
+                    default -> {
+                        for (long r = 0; r < element.count; ++r)
+                            for (PlyProperty property : element.properties) property.skip(in);
+                    }
+                }
+            if (vertices == null || indices == null)
+                throw new IllegalArgumentException("PLY file without vertices or faces: " + file);
+            return new Mesh(vertices, indices.toArray());
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading the mesh " + file + " failed", e);
+        }
+    }
+
+    // ***************** OBJ ******************** //
+
+    /**
+     * Splits a file into chunks of about a given size, each starting at the beginning of a line
+     *
+     * @param channel   the file
+     * @param chunkSize the nominal size of a chunk
+     * @return the start positions of the chunks followed by the file size
+     * @throws IOException if the file cannot be read
+     */
+    private static long[] chunkBounds(FileChannel channel, long chunkSize) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        long[] bounds = new long[count + 1];
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        for (int i = 1; i < count; ++i) {
+            // the chunk starts after the first line end at or after its nominal start
+            long position = Math.max(i * chunkSize - 1, bounds[i - 1]);
+            bounds[i] = size;
+            search:
+            while (position < size) {
+                block.clear();
+                int read = channel.read(block, position);
+                if (read <= 0) break;
+                for (int k = 0; k < read; ++k)
+                    if (block.get(k) == '\n') {
+                        bounds[i] = position + k + 1;
+                        break search;
+                    }
+                position += read;
+            }
+        }
+        bounds[count] = size;
+        return bounds;
+    }
+
+    /**
+     * Joins the buffers of the parsed chunks of an OBJ file into a mesh, resolving the vertex indices
+     * relative to the chunks into indices of the whole file
+     *
+     * @param chunks the parsed chunks in the order of the file
+     * @return the mesh
+     */
+    private static Mesh merge(ObjChunk[] chunks) {
+        int verticesLength = 0, indicesLength = 0;
+        for (ObjChunk chunk : chunks) {
+            verticesLength += chunk.vertices.size;
+            indicesLength += chunk.indices.size;
+        }
+        if (chunks.length == 1)
+            return new Mesh(chunks[0].vertices.toArray(), chunks[0].indices.toArray());
+        double[] vertices = new double[verticesLength];
+        int[] indices = new int[indicesLength];
+        int v = 0, f = 0;
+        for (ObjChunk chunk : chunks) {
+            System.arraycopy(chunk.vertices.data, 0, vertices, v, chunk.vertices.size);
+            System.arraycopy(chunk.indices.data, 0, indices, f, chunk.indices.size);
+            int offset = v / 3;
+            if (chunk.relative != null)
+                for (int i = chunk.relative.nextSetBit(0); i >= 0; i = chunk.relative.nextSetBit(i + 1))
+                    indices[f + i] += offset;
+            v += chunk.vertices.size;
+            f += chunk.indices.size;
+        }
+        return new Mesh(vertices, indices);
+    }
+
+    /**
+     * A chunk of an OBJ file parsed into its own vertex and index buffers. Negative (relative) face indices
+     * are kept relative to the first vertex of the chunk until the chunks are merged
+     */
+    private static final class ObjChunk {
+        private final MappedByteBuffer buffer;
+        /** File position of the chunk, for error messages */
+        private final long start;
+        private final int end;
+        private int pos = 0;
+
+        private final DoubleList vertices = new DoubleList();
+        private final IntList indices = new IntList();
+        /** Positions in the index buffer of the indices relative to the first vertex of the chunk */
+        private BitSet relative;
+        /** The vertex indices of the face being parsed */
+        private final IntList face = new IntList();
+        private final BitSet faceRelative = new BitSet();
+
+        ObjChunk(MappedByteBuffer buffer, long start) {
+            this.buffer = buffer;
+            this.start = start;
+            this.end = buffer.limit();
+        }
+
+        /**
+         * Parses the lines of the chunk
+         *
+         * @return this chunk
+         */
+        ObjChunk parse() {
+            while (pos < end) {
+                skipBlanks();
+                byte b = at(pos);
+                if (isBlank(at(pos + 1)))
+                    if (b == 'v') {
+                        pos += 2;
+                        vertices.add(parseDouble());
+                        vertices.add(parseDouble());
+                        vertices.add(parseDouble());
+                    } else if (b == 'f') {
+                        pos += 2;
+                        parseFace();
+                    }
+                // the rest of the line - comments, other statements and the w coordinate of a vertex
+                while (pos < end && buffer.get(pos) != '\n') ++pos;
+                ++pos;
+            }
+            return this;
+        }
+
+        /**
+         * Parses the vertex indices of a face and adds it as a fan of triangles
+         */
+        private void parseFace() {
+            face.size = 0;
+            faceRelative.clear();
+            int vertexCount = vertices.size / 3;
+            while (true) {
+                skipBlanks();
+                byte b = at(pos);
+                if (b == '\n' || b == '\r' || b == '#') break;
+                int index = parseInt();
+                if (index > 0) face.add(index - 1);
+                else if (index < 0) {
+                    faceRelative.set(face.size);
+                    face.add(vertexCount + index);
+                } else throw malformed("Vertex index 0");
+                // texture and normal indices of the vertex
+                while (!isBlank(at(pos)) && at(pos) != '\n' && at(pos) != '\r') ++pos;
+            }
+            if (face.size < 3) throw malformed("Face with less than 3 vertices");
+            for (int k = 1; k < face.size - 1; ++k) {
+                addIndex(0);
+                addIndex(k);
+                addIndex(k + 1);
+            }
+        }
+
+        /**
+         * Adds a vertex of the current face to the index buffer
+         *
+         * @param k the position of the vertex in the face
+         */
+        private void addIndex(int k) {
+            if (faceRelative.get(k)) {
+                if (relative == null) relative = new BitSet();
+                relative.set(indices.size);
+            }
+            indices.add(face.data[k]);
+        }
+
+        /**
+         * Parses a decimal integer
+         *
+         * @return the integer
+         */
+        private int parseInt() {
+            boolean negative = at(pos) == '-';
+            if (negative || at(pos) == '+') ++pos;
+            long value = 0;
+            int digits = 0;
+            for (byte b = at(pos); b >= '0' && b <= '9'; b = at(++pos), ++digits) {
+                value = value * 10 + (b - '0');
+                if (value > Integer.MAX_VALUE) throw malformed("Index too large");
+            }
+            if (digits == 0) throw malformed("Number expected");
+            return (int) (negative ? -value : value);
+        }
+
+        /**
+         * Parses a decimal floating point number. Numbers of up to 15 significant digits and small exponents
+         * are converted exactly with a single division or multiplication; longer numbers fall back to
+         * {@link Double#parseDouble(String)}
+         *
+         * @return the number
+         */
+        private double parseDouble() {
+            skipBlanks();
+            int from = pos;
+            boolean negative = at(pos) == '-';
+            if (negative || at(pos) == '+') ++pos;
+            long mantissa = 0;
+            int significant = 0, exponent = 0, digits = 0;
+            boolean exact = true;
+            for (byte b = at(pos); b >= '0' && b <= '9'; b = at(++pos), ++digits)
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) ++significant;
+                } else {
+                    ++exponent;
+                    exact = false;
+                }
+            if (at(pos) == '.')
+                for (byte b = at(++pos); b >= '0' && b <= '9'; b = at(++pos), ++digits)
+                    if (significant < 18) {
+                        mantissa = mantissa * 10 + (b - '0');
+                        if (mantissa != 0) ++significant;
+                        --exponent;
+                    } else exact = false;
+            if (digits == 0) throw malformed("Number expected");
+            if (at(pos) == 'e' || at(pos) == 'E') {
+                ++pos;
+                exponent += parseInt();
+            }
+            if (exact && significant <= 15 && Math.abs(exponent) < POWERS.length) {
+                double value = exponent < 0 ? mantissa / POWERS[-exponent] : mantissa * POWERS[exponent];
+                return negative ? -value : value;
+            }
+            byte[] text = new byte[pos - from];
+            buffer.get(from, text);
+            return Double.parseDouble(new String(text, StandardCharsets.US_ASCII));
+        }
+
+        /**
+         * Skips spaces and tabs
+         */
+        private void skipBlanks() {
+            while (isBlank(at(pos))) ++pos;
+        }
+
+        /**
+         * Returns a byte of the chunk, a line end past the end of the chunk
+         *
+         * @param i the position of the byte in the chunk
+         * @return the byte
+         */
+        private byte at(int i) {
+            return i < end ? buffer.get(i) : (byte) '\n';
+        }
+
+        private static boolean isBlank(byte b) {
+            return b == ' ' || b == '\t';
+        }
+
+        /**
+         * Creates the exception of malformed content at the current position
+         *
+         * @param message the problem found
+         * @return the exception
+         */
+        private IllegalArgumentException malformed(String message) {
+            return new IllegalArgumentException(message + " at byte " + (start + pos) + " of the OBJ file");
+        }
+    }
+
+    // ***************** PLY ******************** //
+
+    /**
+     * Reads the header of a PLY file, leaving the input at the first byte of the data
+     *
+     * @param in the file
+     * @return the elements of the file in their order
+     * @throws IOException if the file cannot be read
+     */
+    private static List<PlyElement> readPlyHeader(MappedInput in) throws IOException {
+        if (!"ply".equals(in.readLine()))
+            throw new IllegalArgumentException("Not a PLY file");
+        List<PlyElement> elements = new ArrayList<>();
+        for (String line = in.readLine(); !line.equals("end_header"); line = in.readLine()) {
+            String[] words = line.trim().split("\\s+");
+            switch (words[0]) {
+                case "format" -> {
+                    if (words.length < 2) throw new IllegalArgumentException("Malformed PLY line: " + line);
+                    switch (words[1]) {
+                        case "binary_little_endian" -> in.order(ByteOrder.LITTLE_ENDIAN);
+                        case "binary_big_endian" -> in.order(ByteOrder.BIG_ENDIAN);
+                        default -> throw new IllegalArgumentException("Only binary PLY files are supported");
+                    }
+                }
+                case "element" -> {
+                    if (words.length < 3) throw new IllegalArgumentException("Malformed PLY line: " + line);
+                    elements.add(new PlyElement(words[1], Long.parseLong(words[2])));
+                }
+                case "property" -> {
+                    if (elements.isEmpty() || words.length < 3)
+                        throw new IllegalArgumentException("Malformed PLY line: " + line);
+                    PlyProperty property = words[1].equals("list") && words.length >= 5
+                            ? new PlyProperty(words[4], PlyType.of(words[3]), PlyType.of(words[2]))
+                            : new PlyProperty(words[2], PlyType.of(words[1]), null);
+                    elements.get(elements.size() - 1).properties.add(property);
+                }
+                default -> {
+                    // comments and obj_info
+                }
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * Reads the vertex element of a PLY file
+     *
+     * @param in      the file, at the first vertex
+     * @param element the vertex element
+     * @return the vertex coordinates
+     * @throws IOException if the file cannot be read
+     */
+    private static double[] readPlyVertices(MappedInput in, PlyElement element) throws IOException {
+        if (element.count > Integer.MAX_VALUE / 3)
+            throw new IllegalArgumentException("Too many PLY vertices: " + element.count);
+        int[] axes = new int[element.properties.size()];
+        Arrays.fill(axes, -1);
+        for (int p = 0; p < axes.length; ++p)
+            switch (element.properties.get(p).name) {
+                case "x" -> axes[p] = 0;
+                case "y" -> axes[p] = 1;
+                case "z" -> axes[p] = 2;
+                default -> {
+                }
+            }
+        double[] vertices = new double[(int) element.count * 3];
+        for (int v = 0; v < vertices.length; v += 3)
+            for (int p = 0; p < axes.length; ++p) {
+                PlyProperty property = element.properties.get(p);
+                if (axes[p] >= 0 && property.countType == null) vertices[v + axes[p]] = property.type.read(in);
+                else property.skip(in);
+            }
+        return vertices;
+    }
+
+    /**
+     * Reads the face element of a PLY file, splitting the faces into triangle fans
+     *
+     * @param in      the file, at the first face
+     * @param element the face element
+     * @return the vertex indices of the triangles
+     * @throws IOException if the file cannot be read
+     */
+    private static IntList readPlyFaces(MappedInput in, PlyElement element) throws IOException {
+        IntList indices = new IntList();
+        for (long f = 0; f < element.count; ++f)
+            for (PlyProperty property : element.properties) {
+                if (property.countType == null
+                        || !property.name.equals("vertex_indices") && !property.name.equals("vertex_index")) {
+                    property.skip(in);
+                    continue;
+                }
+                int count = (int) property.countType.read(in);
+                if (count < 3) throw new IllegalArgumentException("PLY face with less than 3 vertices");
+                int first = (int) property.type.read(in), previous = (int) property.type.read(in);
+                for (int k = 2; k < count; ++k) {
+                    int next = (int) property.type.read(in);
+                    indices.add(first);
+                    indices.add(previous);
+                    indices.add(next);
+                    previous = next;
+                }
+            }
+        return indices;
+    }
+
+    /**
+     * An element of a PLY file with its properties
+     */
+    private static final class PlyElement {
+        private final String name;
+        private final long count;
+        private final List<PlyProperty> properties = new ArrayList<>();
+
+        PlyElement(String name, long count) {
+            this.name = name;
+            this.count = count;
+        }
+    }
+
+    /**
+     * A property of a PLY element - a scalar, or a list when it has a count type
+     */
+    private static final class PlyProperty {
+        private final String name;
+        private final PlyType type;
+        private final PlyType countType;
+
+        PlyProperty(String name, PlyType type, PlyType countType) {
+            this.name = name;
+            this.type = type;
+            this.countType = countType;
+        }
+
+        /**
+         * Skips the value of the property in a record
+         *
+         * @param in the file, at the value
+         * @throws IOException if the file cannot be read
+         */
+        void skip(MappedInput in) throws IOException {
+            long count = countType == null ? 1 : (long) countType.read(in);
+            in.skip(count * type.size);
+        }
+    }
+
+    /**
+     * The scalar types of PLY properties
+     */
+    private enum PlyType {
+        CHAR(1), UCHAR(1), SHORT(2), USHORT(2), INT(4), UINT(4), FLOAT(4), DOUBLE(8);
+
+        private final int size;
+
+        PlyType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Finds a type by its name in the header
+         *
+         * @param name the name
+         * @return the type
+         */
+        static PlyType of(String name) {
+            return switch (name) {
+                case "char", "int8" -> CHAR;
+                case "uchar", "uint8" -> UCHAR;
+                case "short", "int16" -> SHORT;
+                case "ushort", "uint16" -> USHORT;
+                case "int", "int32" -> INT;
+                case "uint", "uint32" -> UINT;
+                case "float", "float32" -> FLOAT;
+                case "double", "float64" -> DOUBLE;
+                default -> throw new IllegalArgumentException("Unknown PLY type: " + name);
+            };
+        }
+
+        /**
+         * Reads a value of the type
+         *
+         * @param in the file, at the value
+         * @return the value
+         * @throws IOException if the file cannot be read
+         */
+        double read(MappedInput in) throws IOException {
+            ByteBuffer buffer = in.require(size);
+            return switch (this) {
+                case CHAR -> buffer.get();
+                case UCHAR -> buffer.get() & 0xFF;
+                case SHORT -> buffer.getShort();
+                case USHORT -> buffer.getShort() & 0xFFFF;
+                case INT -> buffer.getInt();
+                case UINT -> buffer.getInt() & 0xFFFFFFFFL;
+                case FLOAT -> buffer.getFloat();
+                case DOUBLE -> buffer.getDouble();
+            };
+        }
+    }
+
+    /**
+     * Sequential input from a file mapped in regions of up to {@link #WINDOW_SIZE} bytes,
+     * so files larger than a single mapping can be read
+     */
+    private static final class MappedInput {
+        private final FileChannel channel;
+        private final long size;
+        private ByteOrder order = ByteOrder.BIG_ENDIAN;
+        private MappedByteBuffer buffer;
+        /** File position of the mapped region */
+        private long base = 0;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        void order(ByteOrder order) {
+            this.order = order;
+            buffer.order(order);
+        }
+
+        /**
+         * Makes sure the next bytes of the file are mapped
+         *
+         * @param bytes the amount of bytes
+         * @return the buffer holding the bytes at its position
+         * @throws IOException if the file cannot be read
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                long position = base + buffer.position();
+                if (size - position < bytes) throw new IllegalArgumentException("Unexpected end of the PLY file");
+                map(position);
+            }
+            return buffer;
+        }
+
+        /**
+         * Skips bytes of the file
+         *
+         * @param bytes the amount of bytes
+         * @throws IOException if the file cannot be read
+         */
+        void skip(long bytes) throws IOException {
+            if (bytes <= buffer.remaining()) buffer.position(buffer.position() + (int) bytes);
+            else {
+                long position = base + buffer.position() + bytes;
+                if (position > size) throw new IllegalArgumentException("Unexpected end of the PLY file");
+                map(position);
+            }
+        }
+
+        /**
+         * Reads a line of the header
+         *
+         * @return the line without its end
+         * @throws IOException if the file cannot be read
+         */
+        String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            for (byte b = require(1).get(); b != '\n'; b = require(1).get())
+                if (b != '\r') line.append((char) b);
+            return line.toString();
+        }
+
+        private void map(long position) throws IOException {
+            base = position;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, size - position));
+            buffer.order(order);
+        }
+    }
+
+    // ***************** Buffers ******************** //
+
+    /**
+     * A growing buffer of doubles
+     */
+    private static final class DoubleList {
+        private double[] data = new double[1024];
+        private int size = 0;
+
+        void add(double value) {
+            if (size == data.length) data = Arrays.copyOf(data, data.length * 2);
+            data[size++] = value;
+        }
+
+        double[] toArray() {
+            return data.length == size ? data : Arrays.copyOf(data, size);
+        }
+    }
+
+    /**
+     * A growing buffer of ints
+     */
+    private static final class IntList {
+        private int[] data = new int[1024];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, data.length * 2);
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return data.length == size ? data : Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import static primitives.Util.isZero;
  * @author Amir Hay and ori
  */
 public class Plane extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      *  point on the plane.
      */
@@ -53,6 +55,16 @@ public class Plane extends Geometry {
         this.normal = vec.normalize();
     }
 
+    /**
+     * A plane is infinite, so it has no finite bounding box.
+     *
+     * @return {@link AABB#UNBOUNDED}
+     */
+    @Override
+    public AABB getBoundingBox() {
+        return AABB.UNBOUNDED;
+    }
+
     @Override
     public String toString() {
         return "Plane{" +
@@ -99,46 +111,48 @@ public class Plane extends Geometry {
      * @param maxDistance The maximum distance from the source of the ray to intersect with.
      * @return A list of {@link Point} objects representing the intersection points, or null if no intersection is found.
      */
-        @Override
-        public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
-
-            Point p0 = ray.getP0();
-            Vector v = ray.getDir();
-
-            Vector n = normal;
-
-            if (q0.equals(p0)){
-                return null;
-            }
-
-            Vector P0_Q0 = q0.subtract(p0);
-
-            //numerator
-            double np0q0 = alignZero(n.dotProduct(P0_Q0));
-
-            if (isZero(np0q0)){
-                return null;
-            }
-
-            //denominator
-            double nv = alignZero(n.dotProduct(v));
-
-            //ray is lying in the plane axis
-            if (isZero(nv)){
-                return null;
-            }
-
-            double t = alignZero(np0q0 / nv);
-
-            if(t < 0 || alignZero(t - maxDistance) > 0){
-                return null;
-            }
-
-            Point point = ray.getPoint(t);
+    @Override
+    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
+        double t = findDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t)));
+    }
 
-            return List.of(new GeoPoint(this,ray.getPoint(t)));
+    /**
+     * Finds the intersection of a given {@link Ray} with the plane - a plane is cut at most once.
+     *
+     * @param ray The {@link Ray} object used to find the intersection.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return The intersection point with its ray parameter, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : new GeoPoint(this, ray.getPoint(t), t);
+    }
 
-        }
+    /**
+     * Calculates the ray parameter of the intersection of a given {@link Ray} with the plane.
+     *
+     * @param ray The {@link Ray} object used to find the intersection.
+     * @param maxDistance The maximum distance from the source of the ray to intersect with.
+     * @return the distance from the start of the ray to the plane, or NaN if the ray does not cut the plane
+     */
+    double findDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        if (q0.equals(p0))
+            return Double.NaN;
+        //numerator
+        double np0q0 = alignZero(normal.dotProduct(q0.subtract(p0)));
+        if (isZero(np0q0))
+            return Double.NaN;
+        //denominator
+        double nv = alignZero(normal.dotProduct(ray.getDir()));
+        //ray is lying in the plane axis
+        if (isZero(nv))
+            return Double.NaN;
+        double t = alignZero(np0q0 / nv);
+        return t < 0 || alignZero(t - maxDistance) > 0 ? Double.NaN : t;
+    }
 
 }
 
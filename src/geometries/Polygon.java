@@ -1,9 +1,8 @@
 package geometries;
 
-import static primitives.Util.checkSign;
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import primitives.Point;
@@ -17,6 +16,8 @@ import primitives.Vector;
  * @author Dan
  */
 public class Polygon extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * List of polygon's vertices
      */
@@ -26,6 +27,23 @@ public class Polygon extends Geometry {
      */
     protected final Plane plane;
     private final int size;
+    /**
+     * The box bounding the polygon
+     */
+    private final AABB box;
+    /**
+     * The unit normal of the plane and its offset (normal dot any vertex), cached for the plane hit
+     */
+    private final double nx, ny, nz, offset;
+    /**
+     * The two axes the polygon is projected on - the axes other than the dominant axis of the normal
+     */
+    private final int uAxis, vAxis;
+    /**
+     * Edge equations in the projection, edgeA * u + edgeB * v + edgeC is the signed distance
+     * from the edge, positive inside the polygon
+     */
+    private final double[] edgeA, edgeB, edgeC;
 
     /**
      * Polygon constructor based on vertices list. The list must be ordered by edge
@@ -53,6 +71,7 @@ public class Polygon extends Geometry {
         if (vertices.length < 3) throw new IllegalArgumentException("A polygon can't have less than 3 vertices");
         this.vertices = List.of(vertices);
         size = vertices.length;
+        box = new AABB(vertices);
 
         /** Generate the plane according to the first three vertices and associate the
          * polygon with this plane.
@@ -60,8 +79,33 @@ public class Polygon extends Geometry {
          */
 
         plane = new Plane(vertices[0], vertices[1], vertices[2]);
-        if (size == 3) return; // no need for more tests for a Triangle
         Vector n = plane.getNormal();
+        nx = n.getX();
+        ny = n.getY();
+        nz = n.getZ();
+        offset = nx * vertices[0].getX() + ny * vertices[0].getY() + nz * vertices[0].getZ();
+
+        // Project on the plane of the two axes along which the normal is the smallest, which keeps the
+        // projected polygon as large as possible, and orient the edges so that the inside is positive
+        double ax = Math.abs(nx), ay = Math.abs(ny), az = Math.abs(nz);
+        int drop = ax >= ay && ax >= az ? 0 : ay >= az ? 1 : 2;
+        uAxis = drop == 0 ? 1 : 0;
+        vAxis = drop == 2 ? 1 : 2;
+        double orientation = drop == 0 ? nx : drop == 1 ? -ny : nz;
+        edgeA = new double[size];
+        edgeB = new double[size];
+        edgeC = new double[size];
+        for (int i = 0; i < size; ++i) {
+            Point from = vertices[i], to = vertices[(i + 1) % size];
+            double u1 = coordinate(from, uAxis), v1 = coordinate(from, vAxis);
+            double du = coordinate(to, uAxis) - u1, dv = coordinate(to, vAxis) - v1;
+            double scale = Math.copySign(1 / Math.sqrt(du * du + dv * dv), orientation);
+            edgeA[i] = -dv * scale;
+            edgeB[i] = du * scale;
+            edgeC[i] = (dv * u1 - du * v1) * scale;
+        }
+
+        if (size == 3) return; // no need for more tests for a Triangle
         // Subtracting any subsequent points will throw an IllegalArgumentException
         // because of Zero Vector if they are in the same point
         Vector edge1 = vertices[vertices.length - 1].subtract(vertices[vertices.length - 2]);
@@ -100,6 +144,11 @@ public class Polygon extends Geometry {
         return plane.getNormal();
     }
 
+    @Override
+    public AABB getBoundingBox() {
+        return box;
+    }
+
     /**
      * Finds the intersection points between a ray and the polygon.
      *
@@ -109,30 +158,60 @@ public class Polygon extends Geometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
-        // Get the starting point of the ray
-        Point p0 = ray.getP0();
-
-        // Create a list of vectors from the starting point to each vertex of the polygon
-        List<Vector> vectors = new ArrayList<>(vertices.size());
-        for (Point vertex : vertices) {
-            vectors.add(vertex.subtract(p0));
-        }
-
-        // Loop over each vertex of the polygon
-        for (int i = 0; i < vertices.size(); i++) {
-            // Calculate the normal vector to the plane of the triangle formed by the ray and two edges of the polygon
-            Vector N = vectors.get(i).crossProduct(vectors.get((i + 1) % vertices.size())).normalize();
-
-            // Calculate the dot product between the ray's direction vector and the normal vector
-            double dotProduct = ray.getDir().dotProduct(N);
+        double t = findDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
 
-            // If the dot product is negative, then the ray is going away from the polygon
-            if (dotProduct < 0)
-                return null;
-        }
+    /**
+     * Finds the intersection of the polygon with a given ray without building a list.
+     *
+     * @param ray the ray to find intersection points with
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the intersection point with its ray parameter, or {@code null} if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double t = findDistance(ray, maxDistance);
+        return Double.isNaN(t) ? null : new GeoPoint(this, ray.getPoint(t), t);
+    }
 
-        // If the ray intersects the polygon's plane, return the intersection points
-        return plane.findGeoIntersectionsHelper(ray,maxDistance);
+    /**
+     * Calculates the ray parameter of the intersection of a given {@link Ray} with the polygon -
+     * the ray is cut with the plane (as {@link Plane} does) and the hit point is tested against the
+     * edge equations in the projection of the polygon. Rays from both sides of the polygon hit it,
+     * rays through its edges and vertices miss it.
+     *
+     * @param ray the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the ray parameter of the intersection, or NaN if the ray misses the polygon within the distance
+     */
+    double findDistance(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector dir = ray.getDir();
+        double ox = p0.getX(), oy = p0.getY(), oz = p0.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        // the ray starts on the plane
+        double numerator = alignZero(offset - (nx * ox + ny * oy + nz * oz));
+        if (isZero(numerator)) return Double.NaN;
+        // the ray is parallel to the plane
+        double denominator = alignZero(nx * dx + ny * dy + nz * dz);
+        if (isZero(denominator)) return Double.NaN;
+        double t = alignZero(numerator / denominator);
+        if (t <= 0 || alignZero(t - maxDistance) > 0) return Double.NaN;
+
+        double u = uAxis == 0 ? ox + t * dx : oy + t * dy;
+        double v = vAxis == 1 ? oy + t * dy : oz + t * dz;
+        for (int i = 0; i < size; ++i)
+            if (alignZero(edgeA[i] * u + edgeB[i] * v + edgeC[i]) <= 0) return Double.NaN;
+        return t;
     }
 
+    /**
+     * @param point a point
+     * @param axis  0, 1 or 2 for x, y or z
+     * @return the coordinate of the point along the axis
+     */
+    private static double coordinate(Point point, int axis) {
+        return axis == 0 ? point.getX() : axis == 1 ? point.getY() : point.getZ();
+    }
 }
@@ -6,6 +6,8 @@ package geometries;
  * @author Amir Hay and ori
  */
 public abstract class RadialGeometry extends Geometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The radius of the radial geometry.
      */
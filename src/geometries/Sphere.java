@@ -17,10 +17,16 @@ import static primitives.Util.alignZero;
  * @author Amir Hay and ori
  */
 public class Sphere extends RadialGeometry {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The center point of the sphere.
      */
     private final Point center;
+    /**
+     * The box bounding the sphere.
+     */
+    private final AABB box;
 
     /**
      * Constructor for a sphere object.
@@ -31,6 +37,8 @@ public class Sphere extends RadialGeometry {
     public Sphere(double radius, Point center) {
         super(radius);
         this.center = center;
+        this.box = new AABB(center.getX() - radius, center.getY() - radius, center.getZ() - radius,
+                center.getX() + radius, center.getY() + radius, center.getZ() + radius);
     }
 
     /**
@@ -42,6 +50,11 @@ public class Sphere extends RadialGeometry {
         return center;
     }
 
+    @Override
+    public AABB getBoundingBox() {
+        return box;
+    }
+
     @Override
     public String toString() {
         return "Sphere{" +
@@ -133,4 +146,41 @@ public class Sphere extends RadialGeometry {
         // If the ray doesn't intersect the sphere, return null.
         return null;
     }
+
+    /**
+     * Finds the closest intersection of a given {@link Ray} with the sphere.
+     *
+     * @param ray The {@link Ray} object used to find the intersection.
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return The closest intersection point with its ray parameter, or null if no intersection is found.
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        Point p0 = ray.getP0();
+        Vector v = ray.getDir();
+
+        if (p0.equals(center)) {
+            if (alignZero(this.radius - maxDistance) > 0)
+                return null;
+            return new GeoPoint(this, center.add(v.scale(radius)), radius);
+        }
+
+        Vector u = center.subtract(p0);
+        double tm = v.dotProduct(u);
+        double dsquare = u.dotProduct(u) - tm * tm;
+        double rsquare = radius * radius;
+        if (dsquare >= rsquare) {
+            return null;
+        }
+        double th = Math.sqrt(rsquare - dsquare);
+
+        // The nearer point is the first one in front of the ray start
+        double t1 = tm - th;
+        if (alignZero(t1) > 0 && alignZero(t1 - maxDistance) <= 0)
+            return new GeoPoint(this, ray.getPoint(t1), t1);
+        double t2 = tm + th;
+        if (alignZero(t2) > 0 && alignZero(t2 - maxDistance) <= 0)
+            return new GeoPoint(this, ray.getPoint(t2), t2);
+        return null;
+    }
 }
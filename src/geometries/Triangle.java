@@ -4,14 +4,32 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import java.util.List;
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * Represents a triangle in 3D space defined by three {@link Point}s.
+ * <p>
+ * Rays are intersected with the Moller-Trumbore algorithm over the first vertex and the two edges
+ * leaving it, which are cached when the triangle is constructed - the plane of the triangle is not
+ * intersected first, and no vector is allocated on the way. The intersection queries of {@link Polygon}
+ * use this test through {@link #findDistance(Ray, double)}, and
+ * {@link #findDistance(Ray, double, double[])} also gives the barycentric coordinates of the hit.
  *
  * @author Amir Hay and ori
  */
 public class Triangle extends Polygon {
+    private static final long serialVersionUID = 1L;
+
+    /** Coordinates of the first vertex */
+    private final double ax, ay, az;
+    /** Edge from the first vertex to the second */
+    private final double e1x, e1y, e1z;
+    /** Edge from the first vertex to the third */
+    private final double e2x, e2y, e2z;
+    /** Reciprocal of the length of the cross product of the edges (twice the triangle area) */
+    private final double inverseArea;
+
     /**
      Constructs a triangle object from three points.
      @param point1 The first point of the triangle.
@@ -20,40 +38,66 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point point1, Point point2, Point point3) {
         super(point1, point2, point3);
+        ax = point1.getX();
+        ay = point1.getY();
+        az = point1.getZ();
+        e1x = point2.getX() - ax;
+        e1y = point2.getY() - ay;
+        e1z = point2.getZ() - az;
+        e2x = point3.getX() - ax;
+        e2y = point3.getY() - ay;
+        e2z = point3.getZ() - az;
+        double nx = e1y * e2z - e1z * e2y, ny = e1z * e2x - e1x * e2z, nz = e1x * e2y - e1y * e2x;
+        inverseArea = 1 / Math.sqrt(nx * nx + ny * ny + nz * nz);
     }
+
     /**
-     *Returns a list of intersection points between the triangle and a given ray.
-     *@param ray the ray to find intersection points with.
-     * @param maxDistance the maximum distance between the point to the start of the ray
-     *@return a list of intersection points between the triangle and the given ray, or {@code null} if there are no
-     *intersections.
+     * Calculates the ray parameter of the intersection of a given {@link Ray} with the triangle
+     * (Moller-Trumbore). The ray hits the triangle when the barycentric coordinates u, v of the hit
+     * (the weights of the second and the third vertices) and 1 - u - v are all positive - a ray through
+     * an edge or a vertex misses it, as does a ray parallel to the triangle or starting on its plane.
+     *
+     * @param ray         the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the ray parameter of the intersection, or NaN if the ray misses the triangle within the distance
      */
     @Override
-    public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
+    double findDistance(Ray ray, double maxDistance) {
+        return findDistance(ray, maxDistance, null);
+    }
 
+    /**
+     * Calculates the ray parameter of the intersection of a given {@link Ray} with the triangle as
+     * {@link #findDistance(Ray, double)} does, and gives the barycentric coordinates of the hit.
+     *
+     * @param ray         the ray to intersect with the triangle
+     * @param maxDistance the maximum distance from the start of the ray
+     * @param barycentric an array of 3 filled on a hit with the weights of the first, the second and the
+     *                    third vertices (1 - u - v, u, v) - may be null
+     * @return the ray parameter of the intersection, or NaN if the ray misses the triangle within the distance
+     */
+    double findDistance(Ray ray, double maxDistance, double[] barycentric) {
         Point p0 = ray.getP0();
-        Vector v = ray.getDir();
-
-        List<GeoPoint> points = plane.findGeoIntersections(ray, maxDistance);
-        if (points == null){
-            return null;
+        Vector dir = ray.getDir();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        // det is the (unit) direction against the (unnormalized) normal - the same test as the plane's
+        if (isZero(det * inverseArea)) return Double.NaN;
+        double inverse = 1 / det;
+        double sx = p0.getX() - ax, sy = p0.getY() - ay, sz = p0.getZ() - az;
+        double u = (sx * px + sy * py + sz * pz) * inverse;
+        if (u <= 0 || u >= 1) return Double.NaN;
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (v <= 0 || u + v >= 1) return Double.NaN;
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        if (t <= 0 || alignZero(t - maxDistance) > 0) return Double.NaN;
+        if (barycentric != null) {
+            barycentric[0] = 1 - u - v;
+            barycentric[1] = u;
+            barycentric[2] = v;
         }
-        Vector v1 = vertices.get(0).subtract(p0);
-        Vector v2 = vertices.get(1).subtract(p0);
-        Vector v3 = vertices.get(2).subtract(p0);
-
-        Vector n1 = v1.crossProduct(v2).normalize();
-        Vector n2 = v2.crossProduct(v3).normalize();
-        Vector n3 = v3.crossProduct(v1).normalize();
-
-        double t1 = v.dotProduct(n1);
-        double t2 = v.dotProduct(n2);
-        double t3 = v.dotProduct(n3);
-
-
-        if ((t1>0 && t2>0 && t3>0) || (t1<0 && t2<0 && t3<0))
-            return List.of(new GeoPoint(this,points.get(0).point));
-
-        return null;
+        return t;
     }
 }
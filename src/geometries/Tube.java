@@ -4,9 +4,11 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
 
 /**
  * The Tube class represents a tube object in a 3D space.
@@ -15,6 +17,7 @@ import static primitives.Util.alignZero;
  * @author Amir Hay and ori
  */
 public class Tube extends RadialGeometry {
+    private static final long serialVersionUID = 1L;
 
     /** The axis ray of the tube. */
     protected Ray axisRay;
@@ -38,6 +41,16 @@ public class Tube extends RadialGeometry {
         return axisRay;
     }
 
+    /**
+     * A tube is infinite, so it has no finite bounding box.
+     *
+     * @return {@link AABB#UNBOUNDED}
+     */
+    @Override
+    public AABB getBoundingBox() {
+        return AABB.UNBOUNDED;
+    }
+
     @Override
     public String toString() {
         return "Tube{" +
@@ -91,6 +104,92 @@ public class Tube extends RadialGeometry {
      */
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray,double maxDistance) {
-        return null;
+        double[] distances = findDistances(ray, maxDistance);
+        if (distances == null)
+            return null;
+        GeoPoint[] points = new GeoPoint[distances.length];
+        for (int i = 0; i < distances.length; ++i)
+            points[i] = new GeoPoint(this, ray.getPoint(distances[i]), distances[i]);
+        return List.of(points);
+    }
+
+    /**
+     * Finds the closest intersection of the given ray with the tube.
+     *
+     * @param ray the ray to find intersections with.
+     * @param maxDistance the maximum distance between the point to the start of the ray
+     * @return the closest intersection point with its ray parameter, or null if there is no intersection
+     */
+    @Override
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        double[] distances = findDistances(ray, maxDistance);
+        return distances == null ? null : new GeoPoint(this, ray.getPoint(distances[0]), distances[0]);
+    }
+
+    /**
+     * Calculates the ray parameters of the intersections of the ray with the tube
+     *
+     * @param ray the ray
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the ray parameters of the intersections in front of the ray start and within the distance,
+     * in ascending order, or null if there are none
+     */
+    double[] findDistances(Ray ray, double maxDistance) {
+        double[] roots = findSideDistances(ray);
+        return roots == null ? null : inRange(roots, 2, maxDistance);
+    }
+
+    /**
+     * Calculates the ray parameters where the (infinite) line of the ray cuts the side of the tube.
+     * The ray and the axis are projected on the plane orthogonal to the axis, where the side is a circle:
+     * with w the vector from the axis start to the ray start and d the ray direction, both without their
+     * components along the axis, |w + t*d| = radius.
+     *
+     * @param ray the ray
+     * @return the two ray parameters in ascending order, or null if the ray is parallel to the axis,
+     * tangent to the side or misses it
+     */
+    double[] findSideDistances(Ray ray) {
+        Point p0 = ray.getP0(), o = axisRay.getP0();
+        Vector dir = ray.getDir(), axis = axisRay.getDir();
+        double ax = axis.getX(), ay = axis.getY(), az = axis.getZ();
+        double dx = dir.getX(), dy = dir.getY(), dz = dir.getZ();
+        double wx = p0.getX() - o.getX(), wy = p0.getY() - o.getY(), wz = p0.getZ() - o.getZ();
+        double da = dx * ax + dy * ay + dz * az, wa = wx * ax + wy * ay + wz * az;
+        dx -= da * ax;
+        dy -= da * ay;
+        dz -= da * az;
+        wx -= wa * ax;
+        wy -= wa * ay;
+        wz -= wa * az;
+        // the quadratic a*t^2 + 2*b*t + c = 0
+        double a = dx * dx + dy * dy + dz * dz;
+        if (isZero(a))
+            return null;
+        double b = dx * wx + dy * wy + dz * wz;
+        double c = wx * wx + wy * wy + wz * wz - radius * radius;
+        double discriminant = alignZero(b * b - a * c);
+        if (discriminant <= 0)
+            return null;
+        double root = Math.sqrt(discriminant);
+        return new double[]{(-b - root) / a, (-b + root) / a};
+    }
+
+    /**
+     * Keeps the ray parameters in front of the ray start and within the maximum distance
+     *
+     * @param distances the ray parameters in ascending order - the array is reused for the result
+     * @param count the amount of parameters in the array
+     * @param maxDistance the maximum distance from the start of the ray
+     * @return the kept parameters in ascending order, or null if none is kept
+     */
+    static double[] inRange(double[] distances, int count, double maxDistance) {
+        int kept = 0;
+        for (int i = 0; i < count; ++i) {
+            double t = alignZero(distances[i]);
+            if (t > 0 && alignZero(t - maxDistance) <= 0)
+                distances[kept++] = t;
+        }
+        return kept == 0 ? null : kept == distances.length ? distances : Arrays.copyOf(distances, kept);
     }
 }
@@ -8,6 +8,7 @@ import primitives.Double3;
  * contributes a uniform amount of illumination to all objects in the scene.
  */
 public class AmbientLight extends Light{
+    private static final long serialVersionUID = 1L;
 
     /**
      * construct the ambient light using a color, and it's attenuation factor with dad constructor.
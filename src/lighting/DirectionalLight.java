@@ -10,6 +10,8 @@ import primitives.Vector;
  * the light of a distant star or the sun.
  */
 public class DirectionalLight extends Light implements LightSource{
+    private static final long serialVersionUID = 1L;
+
     /**
      * The direction of the light. This vector represents the direction in which the light is
      * shining, and is normalized to have a length of 1.
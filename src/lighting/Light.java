@@ -2,12 +2,16 @@ package lighting;
 
 import primitives.Color;
 
+import java.io.Serializable;
+
 /**
  * @author Amir Hay and ori shoshana
  * The abstract base class for all types of lights in a scene
  *  This class provides a method to retrieve the intensity of the light
  */
-abstract class Light {
+abstract class Light implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The intensity of the light.
      */
@@ -7,6 +7,8 @@ import primitives.*;
  * It extends the Light class and implements the LightSource interface.
  */
 public class PointLight extends Light implements LightSource{
+    private static final long serialVersionUID = 1L;
+
     private final Point position;
 
     private double kC = 1;
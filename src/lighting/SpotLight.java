@@ -8,6 +8,8 @@ import primitives.Vector;
  * and can be used to highlight specific areas or objects.
  */
 public class SpotLight extends PointLight {
+    private static final long serialVersionUID = 1L;
+
     /** The direction in which the spotlight is pointing. */
     Vector direction;
     private double narrowBeam = 1;
@@ -1,11 +1,15 @@
 package primitives;
 
+import java.io.Serializable;
+
 /** Wrapper class for java.jwt.Color The constructors operate with any
  * non-negative RGB values. The colors are maintained without upper limit of
  * 255. Some additional operations are added that are useful for manipulating
  * light's colors
  * @author Dan Zilberstein */
-public class Color {
+public class Color implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The internal fields maintain RGB components as double numbers from 0 to
      * whatever... */
     private final Double3     rgb;
@@ -53,6 +57,18 @@ public class Color {
         return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
     }
 
+    /** Red component getter
+     * @return the red component */
+    public double getRed() { return rgb.d1; }
+
+    /** Green component getter
+     * @return the green component */
+    public double getGreen() { return rgb.d2; }
+
+    /** Blue component getter
+     * @return the blue component */
+    public double getBlue() { return rgb.d3; }
+
     /** Operation of adding this and one or more other colors (by component)
      * @param  colors one or more other colors to add
      * @return        new Color object which is a result of the operation */
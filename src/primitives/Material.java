@@ -1,9 +1,12 @@
 package primitives;
 
+import java.io.Serializable;
+
 /**
  * A class representing the material properties of an object.
  */
-public class Material {
+public class Material implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The material diffuse coefficient
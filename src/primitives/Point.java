@@ -1,12 +1,14 @@
 package primitives;
 
+import java.io.Serializable;
 import java.util.Objects;
 
 /**
  * A 3D point in space, defined by its x, y, and z coordinates.
  *
  * @author Amir Hay and ori */
-    public class Point {
+    public class Point implements Serializable {
+        private static final long serialVersionUID = 1L;
 
           /** The 3D coordinates of the point. */
         final Double3 xyz;
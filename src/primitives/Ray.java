@@ -32,6 +32,21 @@ public class Ray {
         this.dir = dir.normalize();
     }
 
+    /**
+     * Constructs a new Ray with the given starting point and the coordinates of its direction.
+     * The direction is normalized without building intermediate vectors.
+     *
+     * @param p0 the starting point of the ray.
+     * @param dx the x coordinate of the direction.
+     * @param dy the y coordinate of the direction.
+     * @param dz the z coordinate of the direction.
+     */
+    public Ray(Point p0, double dx, double dy, double dz) {
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        this.p0 = p0;
+        this.dir = new Vector(dx / length, dy / length, dz / length);
+    }
+
     /**
      * Constructor that moves the ray by DELTA
      * @param p0 point
@@ -5,6 +5,7 @@ package primitives;
  * @author ori shoshana and amir hay
  */
 public class Vector extends Point {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Constructor to initialize vector that receives three numbers (coordinates)
@@ -0,0 +1,86 @@
+package renderer;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Blue-noise sampler - the samples are spread as far from each other as possible, without
+ * the regular structure of a grid. The pattern of every amount of samples is generated once by
+ * Mitchell's best-candidate algorithm (with distances measured around the borders of the pixel),
+ * and every pixel shifts it by a random offset (modulo 1).
+ *
+ * @author ori shoshana and amir hay
+ */
+public class BlueNoiseSampler implements Sampler {
+    private static final long serialVersionUID = 1L;
+
+    /** Amount of candidates examined per sample when generating a pattern */
+    private static final int CANDIDATES = 16;
+    /** Seed of the shared patterns */
+    private static final long PATTERN_SEED = 0x5EEDL;
+    private static final Map<Integer, double[]> PATTERNS = new ConcurrentHashMap<>();
+
+    private final long seed;
+
+    /**
+     * Constructs a blue-noise sampler with seed 0
+     */
+    public BlueNoiseSampler() {
+        this(0);
+    }
+
+    /**
+     * Constructs a blue-noise sampler
+     *
+     * @param seed the seed of the pixel offsets
+     */
+    public BlueNoiseSampler(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void sample(int x, int y, int count, double[] points) {
+        double[] pattern = PATTERNS.computeIfAbsent(count, BlueNoiseSampler::bestCandidate);
+        SplittableRandom random = new SplittableRandom(Sampler.pixelSeed(seed, x, y));
+        double shiftX = random.nextDouble(), shiftY = random.nextDouble();
+        for (int k = 0; k < count; ++k) {
+            points[2 * k] = wrap(pattern[2 * k] + shiftX);
+            points[2 * k + 1] = wrap(pattern[2 * k + 1] + shiftY);
+        }
+    }
+
+    /**
+     * Generates a blue-noise pattern - every new sample is the candidate farthest from the samples chosen so far
+     *
+     * @param count the amount of samples
+     * @return the pattern, in the layout of {@link Sampler#sample(int, int, int, double[])}
+     */
+    private static double[] bestCandidate(int count) {
+        SplittableRandom random = new SplittableRandom(PATTERN_SEED);
+        double[] pattern = new double[2 * count];
+        for (int k = 0; k < count; ++k) {
+            double bestDistance = -1;
+            for (int c = 0; c < CANDIDATES * k + 1; ++c) {
+                double cx = random.nextDouble(), cy = random.nextDouble();
+                double distance = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < k && distance > bestDistance; ++i) {
+                    double dx = Math.abs(cx - pattern[2 * i]), dy = Math.abs(cy - pattern[2 * i + 1]);
+                    dx = Math.min(dx, 1 - dx);
+                    dy = Math.min(dy, 1 - dy);
+                    distance = Math.min(distance, dx * dx + dy * dy);
+                }
+                if (distance > bestDistance) {
+                    bestDistance = distance;
+                    pattern[2 * k] = cx;
+                    pattern[2 * k + 1] = cy;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    private static double wrap(double value) {
+        return value >= 1 ? value - 1 : value;
+    }
+}
@@ -2,17 +2,40 @@ package renderer;
 
 import primitives.*;
 
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.Consumer;
 
 import static primitives.Util.*;
 /**
  * A class that represents a camera.
+ * The camera is serializable so its settings can be sent to render worker processes
+ * (see {@link #setWorkerProcesses(int)}) - the image writer and the state of the last render are not sent.
  *
  * @author ori and amir
  */
-public class Camera {
+public class Camera implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The way the tiles of a render are distributed between threads
+     */
+    public enum ExecutionMode {
+        /** A few tile runners on the rendering pool shared by all the renders (see {@link #setMultiThreading(int)}) */
+        POOL,
+        /**
+         * A separate task per tile, each on its own virtual thread (JDK 21 and later).
+         * On older JDKs the per-tile tasks are queued in the shared rendering pool
+         */
+        VIRTUAL_THREADS
+    }
 
     private Point p0; // Camera location
     private Vector vUp; // Upward direction
@@ -22,11 +45,31 @@ public class Camera {
     private double height; // Height of the view plane
     private double distance; // Distance of the view plane from the camera
     private Point centerPoint;
-    private ImageWriter imageWriter;
+    private transient ImageWriter imageWriter;
     private RayTracerBase rayTracer;
     private int antiAliasing = 1;
     private boolean adaptive = false;
     private int numOfThreads = 1;
+    private int tileSize = 16; // Width and height of a rendering tile in pixels
+    private ExecutionMode executionMode = ExecutionMode.POOL;
+    private boolean progressive = false;
+    private transient SnapshotListener snapshotListener;
+    private transient SubmissionPublisher<RenderedTile> tilePublisher; // Receives the tiles as they are finished
+    private final List<Tile> regions = new ArrayList<>(); // Regions of interest, empty for the whole image
+    private long timeBudget = 0; // Rendering time budget in milliseconds, 0 for no budget
+    private int minSamples = 0; // Variance-driven sampling - samples always traced per pixel, 0 when off
+    private int maxSamples = 0; // Variance-driven sampling - largest amount of samples per pixel
+    private double confidenceThreshold = 0; // Variance-driven sampling - allowed error of the pixel intensity
+    private static final double CONFIDENCE_Z = 1.96; // Normal quantile of the 95% confidence interval
+    private Sampler sampler; // Positions of the samples in a pixel, null for the regular anti-aliasing grid
+    private int samplesPerPixel = 1; // Amount of samples per pixel taken with the sampler
+    private transient volatile PrimaryRayGenerator rayGenerator; // Ray tables of the last render, reused while the setup holds
+    private transient SampleStats sampleStats;
+    private int workerProcesses = 0; // Worker processes the tiles are distributed to, 0 to render in this process
+    private transient Path checkpointFile; // File keeping the finished tiles of a render, null for no checkpoints
+    private transient long checkpointInterval; // Least time between checkpoint writes in milliseconds
+    private transient boolean resume; // Whether a render starts from the tiles of its checkpoint file
+    private static final double PRINT_INTERVAL = 1; // Progress print interval in seconds
 
     public Camera setAntiAliasing(int nRays){
         antiAliasing = nRays;
@@ -62,6 +105,95 @@ public class Camera {
      * @throws UnsupportedOperationException If either the image writer or the ray tracer is not initialized.
      */
     public Camera renderImage() {
+        checkRenderData();
+        render(imageTarget(null));
+        // Return the camera object
+        return this;
+    }
+
+    /**
+     * Starts rendering the image in the background and returns at once. The returned task completes with
+     * this camera when the image writer holds the whole image, reports the progress of the render to its
+     * listeners and stops the render within one tile when cancelled. Nothing is printed while rendering.
+     * The camera must not be changed until the task is done
+     *
+     * @param listeners listeners of the progress, registered before the render starts
+     * @return the handle of the render
+     * @throws MissingResourceException If some of the camera data is missing
+     */
+    public RenderTask renderImageAsync(ProgressListener... listeners) {
+        checkRenderData();
+        RenderTask task = new RenderTask();
+        for (ProgressListener listener : listeners)
+            task.addProgressListener(listener);
+        RenderTarget target = imageTarget(task);
+        Thread thread = new Thread(() -> {
+            try {
+                render(target);
+                task.complete(this, null);
+            } catch (Throwable e) {
+                task.complete(this, e);
+            }
+        }, "render-task");
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    /**
+     * Builds the target of a render of the image - the whole image, or the regions of interest if there are any
+     *
+     * @param task the handle of an asynchronous render, null for a blocking render
+     * @return the target
+     */
+    private RenderTarget imageTarget(RenderTask task) {
+        // Get the number of pixels in X and Y directions from the image writer
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        List<Tile> tiles = new ArrayList<>();
+        if (regions.isEmpty())
+            Collections.addAll(tiles, Tile.split(nX, nY, tileSize));
+        else
+            for (Tile region : regions) {
+                // regions are clipped to the image
+                Tile clipped = new Tile(Math.max(region.x0, 0), Math.max(region.y0, 0),
+                        Math.min(region.x1, nX), Math.min(region.y1, nY));
+                if (clipped.x0 < clipped.x1 && clipped.y0 < clipped.y1)
+                    Collections.addAll(tiles, clipped.split(tileSize));
+            }
+        return new RenderTarget(nX, nY, tiles.toArray(new Tile[0]), imageWriter, 0, 0, task);
+    }
+
+    /**
+     * Renders a rectangle of the image into a separate image of the size of the rectangle.
+     * The view plane is divided into pixels by the resolution of the current image writer,
+     * which is left untouched. The regions of interest are ignored
+     *
+     * @param imageName the name of the cropped image
+     * @param x         the first column of the rectangle
+     * @param y         the first row of the rectangle
+     * @param width     the amount of columns of the rectangle
+     * @param height    the amount of rows of the rectangle
+     * @return the image writer of the cropped image
+     * @throws IllegalArgumentException if the rectangle is not inside the image
+     */
+    public ImageWriter renderCrop(String imageName, int x, int y, int width, int height) {
+        checkRenderData();
+        int nX = imageWriter.getNx();
+        int nY = imageWriter.getNy();
+        if (width < 1 || height < 1 || x < 0 || y < 0 || x + width > nX || y + height > nY)
+            throw new IllegalArgumentException("The crop rectangle must be inside the image");
+        ImageWriter crop = new ImageWriter(imageName, width, height);
+        render(new RenderTarget(nX, nY, new Tile(x, y, x + width, y + height).split(tileSize), crop, x, y));
+        return crop;
+    }
+
+    /**
+     * Checks that all the data needed for rendering is set
+     *
+     * @throws MissingResourceException If some of the camera data is missing
+     */
+    private void checkRenderData() {
         // Check if all required camera data is available
         if (p0 == null || vRight == null
                 || vUp == null || vTo == null || distance == 0
@@ -69,50 +201,396 @@ public class Camera {
                 || imageWriter == null || rayTracer == null) {
             throw new MissingResourceException("Missing camera data", Camera.class.getName(), null);
         }
-        // Get the number of pixels in X and Y directions from the image writer
-        int nX = imageWriter.getNx();
-        int nY = imageWriter.getNy();
-        // Initialize the Pixel class with the number of rows, columns, and total pixels
-        Pixel.initialize(nY, nX, 1);
+    }
 
-        // Check if adaptive mode is enabled
-        if (!adaptive) {
-            // Render the image using regular super-sampling (non-adaptive)
-            // Create multiple threads to process the pixels in parallel
-            while (numOfThreads-- > 0) {
-                new Thread(() -> {
-                    // Iterate over each pixel in the image
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone()) {
-                        // Construct rays for the current pixel and trace them using the ray tracer
-                        List<Ray> rays = constructRays(nX, nY, pixel.col, pixel.row);
-                        Color pixelColor = rayTracer.TraceRays(rays);
-                        // Write the pixel color to the image writer
-                        imageWriter.writePixel(pixel.col, pixel.row, pixelColor);
+    /**
+     * Renders the tiles of the target in the rendering mode of the camera
+     *
+     * @param target the tiles to render and the image to write them to
+     */
+    private void render(RenderTarget target) {
+        if (timeBudget > 0) {
+            renderWithBudget(target);
+            return;
+        }
+        if (progressive) {
+            renderProgressive(target);
+            return;
+        }
+        if (workerProcesses > 0) {
+            // the tiles no worker could render are rendered here
+            new RenderCoordinator(this, target.nX, target.nY, workerProcesses)
+                    .render(target, tile -> publish(target, tile), tiles -> renderLocally(target.withTiles(tiles)));
+            sampleStats = null;
+            return;
+        }
+        renderLocally(target);
+    }
+
+    /**
+     * Renders the tiles of the target in this process, with the variance-driven or the regular sampling
+     *
+     * @param target the tiles to render and the image to write them to
+     */
+    private void renderLocally(RenderTarget target) {
+        if (maxSamples > 0) {
+            renderVarianceDriven(target);
+            return;
+        }
+        PrimaryRayGenerator generator = rayGenerator(target.nX, target.nY, antiAliasing);
+        renderTiles(target, null, tile -> {
+            // the corners traced by the adaptive super-sampling are shared by all the pixels of the tile
+            SampleCache cache = adaptive ? new SampleCache() : null;
+            // the rays of the regular grid are generated into a buffer reused by all the pixels of the tile
+            Ray[] rays = new Ray[generator.raysPerPixel()];
+            List<Ray> rayList = Arrays.asList(rays);
+            for (int row = tile.y0; row < tile.y1; ++row)
+                for (int col = tile.x0; col < tile.x1; ++col)
+                    target.writePixel(col, row, renderPixel(target, generator, col, row, cache, rays, rayList));
+        });
+        sampleStats = null;
+    }
+
+    /**
+     * Renders the tiles of the target on the thread pool shared by all the renders, keeping the finished
+     * tiles in the checkpoint file if checkpoints are on (see {@link #setCheckpoint(Path, long, boolean)})
+     *
+     * @param target   the tiles to render and the image to write them to
+     * @param samples  the amounts of samples per pixel counted by the render, null if it does not count them
+     * @param renderer the action rendering a single tile
+     */
+    private void renderTiles(RenderTarget target, int[] samples, Consumer<Tile> renderer) {
+        if (checkpointFile == null) {
+            runTiles(target, target.tiles, renderer);
+            return;
+        }
+        Checkpoint checkpoint = new Checkpoint(checkpointFile, checkpointInterval, target, samples, fingerprint(target));
+        if (resume) checkpoint.resume();
+        try {
+            runTiles(target, checkpoint.pending(), tile -> {
+                renderer.accept(tile);
+                checkpoint.tileDone(tile);
+            });
+        } catch (RuntimeException | Error e) {
+            checkpoint.abort(e);
+            throw e;
+        }
+        checkpoint.finish();
+    }
+
+    /**
+     * Calculates the fingerprint of a render - the scene, the view plane, the sampling settings and the tiles
+     *
+     * @param target the tiles of the render
+     * @return the fingerprint
+     */
+    long fingerprint(RenderTarget target) {
+        return Checkpoint.fingerprint(target, rayTracer, sampler, p0, vTo, vUp, width, height, distance,
+                antiAliasing, adaptive, samplesPerPixel, minSamples, maxSamples, confidenceThreshold);
+    }
+
+    /**
+     * Renders the given tiles on the thread pool shared by all the renders.
+     * The progress is printed, unless it is reported to the task of an asynchronous render
+     *
+     * @param target   the render the tiles belong to
+     * @param tiles    the tiles to render, claimed in the order of the array
+     * @param renderer the action rendering a single tile
+     * @throws java.util.concurrent.CancellationException if the asynchronous render is cancelled
+     */
+    private void runTiles(RenderTarget target, Tile[] tiles, Consumer<Tile> renderer) {
+        Consumer<Tile> publishing = tilePublisher == null ? renderer : tile -> {
+            renderer.accept(tile);
+            publish(target, tile);
+        };
+        RenderContext context = new RenderContext(tiles, publishing, target.task);
+        if (executionMode == ExecutionMode.VIRTUAL_THREADS)
+            RenderPool.shared().submitPerTile(context);
+        else
+            RenderPool.shared().submit(context, numOfThreads);
+        context.waitToFinish(target.task == null ? PRINT_INTERVAL : 0);
+    }
+
+    /**
+     * Publishes a finished tile to the tile publisher, if there is one. The rendering thread waits
+     * while a subscriber's buffer is full, so a slow subscriber slows the render down
+     *
+     * @param target the render the tile belongs to
+     * @param tile   the finished tile
+     */
+    private void publish(RenderTarget target, Tile tile) {
+        SubmissionPublisher<RenderedTile> publisher = tilePublisher;
+        if (publisher != null && !publisher.isClosed())
+            publisher.submit(new RenderedTile(target, tile));
+    }
+
+    /**
+     * Renders the image in several passes over the regular anti-aliasing grid.
+     * The first pass traces one ray per pixel, every later pass doubles the amount of samples per pixel,
+     * until all the antiAliasing x antiAliasing rays of every pixel are traced.
+     * The image writer holds the current image after every pass.
+     *
+     * @param target the tiles to render and the image to write them to
+     */
+    private void renderProgressive(RenderTarget target) {
+        PrimaryRayGenerator generator = rayGenerator(target.nX, target.nY, antiAliasing);
+        int[] order = progressiveOrder(antiAliasing);
+        FrameBuffer frame = new FrameBuffer(target.nX, target.nY);
+        int done = 0;
+        for (int pass = 1; done < order.length; ++pass) {
+            int from = done;
+            int to = Math.min(order.length, Math.max(1, 2 * done));
+            runTiles(target, target.tiles, tile -> {
+                for (int row = tile.y0; row < tile.y1; ++row)
+                    for (int col = tile.x0; col < tile.x1; ++col) {
+                        for (int k = from; k < to; ++k)
+                            frame.add(col, row, rayTracer.traceRay(generator.generate(col, row, order[k])));
+                        target.writePixel(col, row, frame.getColor(col, row));
                     }
-                }).start();
+                target.raysTraced((long) tile.size() * (to - from));
+            });
+            done = to;
+            if (snapshotListener != null)
+                snapshotListener.snapshot(pass, done, target.image);
+        }
+        sampleStats = frame.getStats(target.tiles);
+    }
+
+    /**
+     * Renders the image within the time budget. The first pass traces one ray per pixel regardless of the
+     * budget, so there is always a complete image. Then, while there is time left, every round picks the
+     * tiles whose pixels are the noisiest (by the variance of the mean of their samples) and doubles
+     * their samples, noisiest tiles first. A pixel is never sampled beyond the antiAliasing x antiAliasing
+     * grid, and tiles whose samples all agree are not refined any more.
+     * The image writer holds the best image so far after every round.
+     *
+     * @param target the tiles to render and the image to write them to
+     */
+    private void renderWithBudget(RenderTarget target) {
+        long deadline = System.nanoTime() + timeBudget * 1_000_000;
+        PrimaryRayGenerator generator = rayGenerator(target.nX, target.nY, antiAliasing);
+        int[] order = progressiveOrder(antiAliasing);
+        FrameBuffer frame = new FrameBuffer(target.nX, target.nY);
+        Tile[] tiles = target.tiles;
+        runTiles(target, tiles, tile -> refineTile(target, generator, tile, frame, order, Long.MAX_VALUE));
+        for (int pass = 1; ; ++pass) {
+            if (snapshotListener != null)
+                snapshotListener.snapshot(pass, (int) Math.round(frame.getStats(tiles).getAverageSamples()),
+                        target.image);
+            if (System.nanoTime() - deadline >= 0) break;
+            Tile[] noisy = noisiestTiles(tiles, frame, order.length);
+            if (noisy.length == 0) break;
+            runTiles(target, noisy, tile -> refineTile(target, generator, tile, frame, order, deadline));
+        }
+        sampleStats = frame.getStats(tiles);
+    }
+
+    /**
+     * Doubles the samples of every pixel of a tile (up to the whole grid) and writes the refined pixels
+     *
+     * @param target   the image to write the pixels to
+     * @param generator the generator of the rays of the anti-aliasing grid
+     * @param tile     the tile to refine
+     * @param frame    the accumulated samples
+     * @param order    the order of the sub-pixels of the anti-aliasing grid
+     * @param deadline the {@link System#nanoTime()} value at which sampling stops
+     */
+    private void refineTile(RenderTarget target, PrimaryRayGenerator generator, Tile tile, FrameBuffer frame, int[] order, long deadline) {
+        for (int row = tile.y0; row < tile.y1; ++row)
+            for (int col = tile.x0; col < tile.x1; ++col) {
+                int from = frame.getSamples(col, row);
+                int to = Math.min(order.length, Math.max(1, 2 * from));
+                for (int k = from; k < to; ++k) {
+                    if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0) break;
+                    frame.add(col, row, rayTracer.traceRay(generator.generate(col, row, order[k])));
+                }
+                target.raysTraced(frame.getSamples(col, row) - from);
+                target.writePixel(col, row, frame.getColor(col, row));
+            }
+    }
+
+    /**
+     * Picks the tiles worth refining - the ones whose noise is at least the average noise of the tiles
+     * which still can be refined. The noise of a tile is the sum of the variances of the means of its pixels,
+     * a pixel with a single sample is considered infinitely noisy.
+     *
+     * @param tiles      all the tiles of the image
+     * @param frame      the accumulated samples
+     * @param maxSamples the largest amount of samples of a pixel
+     * @return the chosen tiles, noisiest first
+     */
+    private static Tile[] noisiestTiles(Tile[] tiles, FrameBuffer frame, int maxSamples) {
+        double[] noise = new double[tiles.length];
+        List<Integer> candidates = new ArrayList<>();
+        double total = 0;
+        for (int t = 0; t < tiles.length; ++t) {
+            Tile tile = tiles[t];
+            for (int row = tile.y0; row < tile.y1; ++row)
+                for (int col = tile.x0; col < tile.x1; ++col) {
+                    int n = frame.getSamples(col, row);
+                    if (n >= maxSamples) continue;
+                    noise[t] += n < 2 ? Double.POSITIVE_INFINITY : frame.getVariance(col, row) / n;
+                }
+            if (noise[t] > 0) {
+                candidates.add(t);
+                total += noise[t];
             }
-            // Wait for all the threads to finish processing the pixels
-            Pixel.waitToFinish();
         }
-        else {
-            // Render the image using adaptive super-sampling
-            // Create multiple threads to process the pixels in parallel
-            while (numOfThreads-- > 0) {
-                new Thread(() -> {
-                    // Iterate over each pixel in the image
-                    for (Pixel pixel = new Pixel(); pixel.nextPixel(); Pixel.pixelDone()) {
-                        // Apply adaptive super-sampling to determine the pixel color
-                        Color pixelColor = SuperSampling(nX, nY, pixel.col, pixel.row, antiAliasing, false);
-                        // Write the pixel color to the image writer
-                        imageWriter.writePixel(pixel.col, pixel.row, pixelColor);
+        double average = total / candidates.size();
+        candidates.removeIf(t -> noise[t] < average);
+        candidates.sort((a, b) -> Double.compare(noise[b], noise[a]));
+        Tile[] result = new Tile[candidates.size()];
+        for (int i = 0; i < result.length; ++i) result[i] = tiles[candidates.get(i)];
+        return result;
+    }
+
+    /**
+     * Orders the sub-pixels of the anti-aliasing grid for progressive rendering: the one nearest to the
+     * pixel center first and then coarse to fine - every power of two stride, so that every prefix of the
+     * order covers the pixel evenly
+     *
+     * @param n the amount of sub-pixels in a row and in a column of the grid
+     * @return the grid indices (row * n + column) in rendering order
+     */
+    static int[] progressiveOrder(int n) {
+        int[] order = new int[n * n];
+        boolean[] taken = new boolean[n * n];
+        int center = (n - 1) / 2 * n + (n - 1) / 2;
+        int k = 0;
+        order[k++] = center;
+        taken[center] = true;
+        int stride = Integer.highestOneBit(n);
+        for (; stride >= 1; stride /= 2)
+            for (int row = 0; row < n; row += stride)
+                for (int col = 0; col < n; col += stride)
+                    if (!taken[row * n + col]) {
+                        taken[row * n + col] = true;
+                        order[k++] = row * n + col;
                     }
-                }).start();
-            }
-            // Wait for all the threads to finish processing the pixels
-            Pixel.waitToFinish();
+        return order;
+    }
+
+    /**
+     * Renders the image with variance-driven adaptive sampling - every pixel is sampled until
+     * the mean of its samples is known well enough (see {@link #setVarianceSampling(int, int, double)})
+     *
+     * @param target the tiles to render and the image to write them to
+     */
+    private void renderVarianceDriven(RenderTarget target) {
+        int n = (int) Math.ceil(Math.sqrt(maxSamples));
+        int nX = target.nX;
+        PrimaryRayGenerator generator = rayGenerator(nX, target.nY, n);
+        int[] order = progressiveOrder(n);
+        int[] samples = new int[nX * target.nY];
+        renderTiles(target, samples, tile -> {
+            for (int row = tile.y0; row < tile.y1; ++row)
+                for (int col = tile.x0; col < tile.x1; ++col) {
+                    target.writePixel(col, row, samplePixel(generator, nX, col, row, order, samples));
+                    target.raysTraced(samples[row * nX + col]);
+                }
+        });
+        sampleStats = SampleStats.of(samples, nX, target.tiles);
+    }
+
+    /**
+     * Samples a single pixel until the confidence interval of the mean intensity of its samples is
+     * narrower than the threshold, or until the largest amount of samples is traced.
+     * The running mean and variance are updated with Welford's algorithm.
+     *
+     * @param generator The generator of the rays of the sampling grid.
+     * @param nX      The number of pixels in the X direction.
+     * @param col     The column of the pixel.
+     * @param row     The row of the pixel.
+     * @param order   The order of the sub-pixels of the grid.
+     * @param samples The amounts of samples of the pixels, updated with the amount of this pixel
+     * @return the mean color of the samples
+     */
+    private Color samplePixel(PrimaryRayGenerator generator, int nX, int col, int row, int[] order, int[] samples) {
+        double r = 0, g = 0, b = 0, mean = 0, m2 = 0;
+        int count = 0;
+        while (count < maxSamples) {
+            Color color = rayTracer.traceRay(generator.generate(col, row, order[count]));
+            ++count;
+            r += (color.getRed() - r) / count;
+            g += (color.getGreen() - g) / count;
+            b += (color.getBlue() - b) / count;
+            double intensity = (color.getRed() + color.getGreen() + color.getBlue()) / 3;
+            double delta = intensity - mean;
+            mean += delta / count;
+            m2 += delta * (intensity - mean);
+            if (count >= minSamples && count > 1
+                    && CONFIDENCE_Z * Math.sqrt(m2 / (count - 1) / count) <= confidenceThreshold)
+                break;
         }
-        // Return the camera object
-        return this;
+        samples[row * nX + col] = count;
+        return new Color(r, g, b);
+    }
+
+    /**
+     * Calculates the color of a single pixel
+     *
+     * @param target  The resolution of the view plane.
+     * @param generator The generator of the rays of the anti-aliasing grid.
+     * @param col     The column of the pixel.
+     * @param row     The row of the pixel.
+     * @param cache   The corner samples of the tile, used by the adaptive super-sampling
+     * @param rays    The buffer of the rays of the regular grid
+     * @param rayList The list view of the buffer
+     * @return the color of the pixel
+     */
+    private Color renderPixel(RenderTarget target, PrimaryRayGenerator generator, int col, int row, SampleCache cache,
+                              Ray[] rays, List<Ray> rayList) {
+        // Trace the samples of the pixel sampler if there is one
+        if (sampler != null) {
+            target.raysTraced(samplesPerPixel);
+            return renderSampledPixel(generator, col, row);
+        }
+        // Check if adaptive mode is enabled
+        if (!adaptive) {
+            // Generate the rays of the current pixel and trace them using the ray tracer (regular super-sampling)
+            generator.generate(col, row, rays);
+            target.raysTraced(rays.length);
+            return rayTracer.TraceRays(rayList);
+        }
+        // Apply adaptive super-sampling to determine the pixel color
+        int traced = cache.size();
+        Color color = adaptiveSuperSampling(target.nX, target.nY, col, row, cache);
+        // the new corners in the cache were traced for this pixel - a single ray per pixel is traced without the cache
+        target.raysTraced(Math.max(1, cache.size() - traced));
+        return color;
+    }
+
+    /**
+     * Calculates the color of a single pixel by averaging the samples of the pixel sampler
+     *
+     * @param generator The generator of the primary rays.
+     * @param col The column of the pixel.
+     * @param row The row of the pixel.
+     * @return the color of the pixel
+     */
+    private Color renderSampledPixel(PrimaryRayGenerator generator, int col, int row) {
+        double[] points = new double[2 * samplesPerPixel];
+        sampler.sample(col, row, samplesPerPixel, points);
+        Color color = Color.BLACK;
+        for (int k = 0; k < samplesPerPixel; ++k)
+            color = color.add(rayTracer.traceRay(generator.generate(col, row, points[2 * k], points[2 * k + 1])));
+        return color.reduce(samplesPerPixel);
+    }
+
+    /**
+     * Returns the generator of the primary rays of a render - the one of the previous render if it was
+     * built for the same view plane, resolution and anti-aliasing grid, otherwise a new one
+     *
+     * @param nX The number of pixels in the X direction.
+     * @param nY The number of pixels in the Y direction.
+     * @param n  The number of sub-pixels in a row and in a column of the anti-aliasing grid.
+     * @return the ray generator
+     */
+    private PrimaryRayGenerator rayGenerator(int nX, int nY, int n) {
+        PrimaryRayGenerator generator = rayGenerator;
+        if (generator == null || !generator.matches(p0, centerPoint, width, height, nX, nY, n))
+            rayGenerator = generator = new PrimaryRayGenerator(p0, centerPoint, vRight, vUp, width, height, nX, nY, n);
+        return generator;
     }
 
     /**
@@ -143,63 +621,97 @@ public class Camera {
 
     public List<Ray> constructRays(int nX, int nY, int j, int i) {
         List<Ray> rays = new LinkedList<>();
-        Point centralPixel = getCenterOfPixel(nX, nY, j, i);
-        double rY = height / nY / antiAliasing;
-        double rX = width / nX / antiAliasing;
-        // Variables to store the X and Y offsets of each sub-pixel within the anti-aliasing grid
-        double x, y;
-
         for (int rowNumber = 0; rowNumber < antiAliasing; rowNumber++) {
             for (int colNumber = 0; colNumber < antiAliasing; colNumber++) {
-                // Calculate the X and Y offsets for the current sub-pixel
-                y = -(rowNumber - (antiAliasing - 1d) / 2) * rY;
-                x = (colNumber - (antiAliasing - 1d) / 2) * rX;
-                // Calculate the position of the current sub-pixel within the pixel
-                Point pIJ = centralPixel;
-                if (y != 0) pIJ = pIJ.add(vUp.scale(y));
-                if (x != 0) pIJ = pIJ.add(vRight.scale(x));
-                // Construct a ray from the camera position to the current sub-pixel
-                rays.add(new Ray(p0, pIJ.subtract(p0)));
+                rays.add(constructRay(nX, nY, j, i, antiAliasing, rowNumber, colNumber));
             }
         }
         return rays;
     }
 
     /**
-     * Checks the color of the pixel with the help of individual rays and averages between them and only
-     * if necessary continues to send beams of rays in recursion
+     * Constructs the ray through a single sub-pixel of a regular grid over a pixel.
+     *
+     * @param nX        The number of pixels in the X direction.
+     * @param nY        The number of pixels in the Y direction.
+     * @param j         The X index of the pixel.
+     * @param i         The Y index of the pixel.
+     * @param n         The number of sub-pixels in a row and in a column of the grid.
+     * @param rowNumber The row of the sub-pixel in the grid.
+     * @param colNumber The column of the sub-pixel in the grid.
+     * @return the ray through the center of the sub-pixel
+     */
+    private Ray constructRay(int nX, int nY, int j, int i, int n, int rowNumber, int colNumber) {
+        Point centralPixel = getCenterOfPixel(nX, nY, j, i);
+        double rY = height / nY / n;
+        double rX = width / nX / n;
+        // Calculate the X and Y offsets for the current sub-pixel
+        double y = -(rowNumber - (n - 1d) / 2) * rY;
+        double x = (colNumber - (n - 1d) / 2) * rX;
+        // Calculate the position of the current sub-pixel within the pixel
+        Point pIJ = centralPixel;
+        if (y != 0) pIJ = pIJ.add(vUp.scale(y));
+        if (x != 0) pIJ = pIJ.add(vRight.scale(x));
+        // Construct a ray from the camera position to the current sub-pixel
+        return new Ray(p0, pIJ.subtract(p0));
+    }
+
+    /**
+     * Checks the color of the pixel with the help of the rays through the corners of the pixel and averages
+     * between them, and only if necessary divides the pixel into four sub-pixels and continues in recursion.
+     * The corners lie on a lattice dividing every pixel into 2^k x 2^k cells, where 2^k is the largest power
+     * of two not above the square root of the anti-aliasing, and are traced through the cache of the tile,
+     * so every corner is traced at most once.
      * @param nX amount of pixels by length
      * @param nY amount of pixels by width
-     * @param j The position of the pixel relative to the y-axis
-     * @param i The position of the pixel relative to the x-axis
-     * @param numOfRays The amount of rays sent
+     * @param j The position of the pixel relative to the x-axis
+     * @param i The position of the pixel relative to the y-axis
+     * @param cache the corner samples of the tile
      * @return Pixel color
      */
-    private Color SuperSampling(int nX, int nY, int j, int i,  int numOfRays, boolean adaptiveAlising)  {
-        // Get the right and up vectors of the camera
-        Vector Vright = vRight;
-        Vector Vup = vUp;
-        // Get the location of the camera
-        Point cameraLoc = this.getP0();
+    private Color adaptiveSuperSampling(int nX, int nY, int j, int i, SampleCache cache) {
         // Calculate the number of rays in each row and column
-        int numOfRaysInRowCol = (int)Math.floor(Math.sqrt(numOfRays));
+        int numOfRaysInRowCol = (int) Math.floor(Math.sqrt(antiAliasing));
         // If the number of rays is 1, perform regular ray tracing
-        if(numOfRaysInRowCol == 1)
+        if (numOfRaysInRowCol <= 1)
             return rayTracer.traceRay(constructRayThroughPixel(nX, nY, j, i));
-        // Calculate the center point of the current pixel
-        Point pIJ = getCenterOfPixel(nX, nY, j, i);
-        // Calculate the height and width ratios of the pixel
-        double rY = alignZero(height / nY);
-        double rX = alignZero(width / nX);
-
-        // Calculate the pixel row and column ratios
-        double PRy = rY/numOfRaysInRowCol;
-        double PRx = rX/numOfRaysInRowCol;
+        int cells = Integer.highestOneBit(numOfRaysInRowCol);
+        double rX = alignZero(width / nX) / cells;
+        double rY = alignZero(height / nY) / cells;
+        SampleCache.LatticeTracer tracer = (x, y) -> {
+            // the lattice point (x, y) lies x / cells pixels right and y / cells pixels below the view plane corner
+            double xJ = alignZero((x - nX * cells / 2d) * rX);
+            double yI = alignZero(-(y - nY * cells / 2d) * rY);
+            Point p = centerPoint;
+            if (!isZero(xJ)) p = p.add(vRight.scale(xJ));
+            if (!isZero(yI)) p = p.add(vUp.scale(yI));
+            return rayTracer.traceRay(new Ray(p0, p.subtract(p0)));
+        };
+        return adaptiveCell(j * cells, i * cells, cells, cache, tracer);
+    }
 
-        if (adaptiveAlising)
-            return rayTracer.AdaptiveSuperSamplingRec(pIJ, rX, rY, PRx, PRy,cameraLoc,Vright, Vup,null);
-        else
-            return rayTracer.RegularSuperSampling(pIJ, rX, rY, PRx, PRy,cameraLoc,Vright, Vup,null);
+    /**
+     * Averages the corners of a lattice cell, or the four quarters of the cell if the corners differ
+     * @param x the lattice column of the upper left corner of the cell
+     * @param y the lattice row of the upper left corner of the cell
+     * @param size the width and height of the cell in lattice units
+     * @param cache the corner samples of the tile
+     * @param tracer the tracer of the lattice points
+     * @return the color of the cell
+     */
+    private Color adaptiveCell(int x, int y, int size, SampleCache cache, SampleCache.LatticeTracer tracer) {
+        Color c00 = cache.get(x, y, tracer);
+        Color c10 = cache.get(x + size, y, tracer);
+        Color c01 = cache.get(x, y + size, tracer);
+        Color c11 = cache.get(x + size, y + size, tracer);
+        if (size == 1 || (c00.isAlmostEquals(c10) && c00.isAlmostEquals(c01) && c00.isAlmostEquals(c11)))
+            return c00.add(c10, c01, c11).reduce(4);
+        int half = size / 2;
+        return adaptiveCell(x, y, half, cache, tracer)
+                .add(adaptiveCell(x + half, y, half, cache, tracer),
+                        adaptiveCell(x, y + half, half, cache, tracer),
+                        adaptiveCell(x + half, y + half, half, cache, tracer))
+                .reduce(4);
     }
 
     /**
@@ -385,7 +897,8 @@ public class Camera {
     }
 
     /**
-     * set the threadsCount
+     * set the threadsCount - the maximal amount of threads of the shared rendering pool
+     * working on a render of this camera at the same time
      * @return the Camera object
      */
     public Camera setMultiThreading(int threadsCount) {
@@ -393,4 +906,203 @@ public class Camera {
         return this;
 
     }
+
+    /**
+     * set the size of the tiles the image is split into for rendering.
+     * Every tile is rendered by a single thread, idle threads steal tiles from busy ones
+     * @param tileSize the width and height of a tile in pixels
+     * @return the Camera object
+     */
+    public Camera setTileSize(int tileSize) {
+        if (tileSize < 1)
+            throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /**
+     * set the way the tiles are distributed between threads
+     * @param executionMode the execution mode
+     * @return the Camera object
+     */
+    public Camera setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    /**
+     * set the progressive mode - the image is rendered in passes, starting with a single ray per pixel
+     * and doubling the rays per pixel in every pass until the full antiAliasing x antiAliasing grid
+     * is traced, so the final image is the same as without the progressive mode.
+     * The adaptive super-sampling is not used in this mode
+     * @param progressive true for progressive rendering
+     * @return the Camera object
+     */
+    public Camera setProgressive(boolean progressive) {
+        this.progressive = progressive;
+        return this;
+    }
+
+    /**
+     * set the listener receiving the intermediate images of a progressive render
+     * @param snapshotListener the listener, called after every pass
+     * @return the Camera object
+     */
+    public Camera setSnapshotListener(SnapshotListener snapshotListener) {
+        this.snapshotListener = snapshotListener;
+        return this;
+    }
+
+    /**
+     * set the publisher of the rendered tiles - every tile is published with a copy of its pixels as soon as
+     * it is finished, so the subscribers (e.g. a viewer or an encoder) work while the image is rendered.
+     * The publisher applies backpressure: once the buffer of a subscriber is full, the rendering threads wait
+     * for it to request more tiles. The progressive and time-budgeted renders publish the tiles of every pass.
+     * The publisher is not closed by the camera, so it can serve several renders
+     * @param tilePublisher the publisher, null to stop publishing
+     * @return the Camera object
+     */
+    public Camera setTilePublisher(SubmissionPublisher<RenderedTile> tilePublisher) {
+        this.tilePublisher = tilePublisher;
+        return this;
+    }
+
+    /**
+     * set the rendering time budget - the image is refined until the budget runs out and the best
+     * image so far is kept (see {@link #getSampleStats()} for the achieved samples per pixel).
+     * The pixels are sampled over the anti-aliasing grid, so the anti-aliasing sets the largest amount
+     * of samples per pixel. The first ray of every pixel is traced even if the budget is too short
+     * @param milliseconds the budget in milliseconds, 0 to render without a budget
+     * @return the Camera object
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public Camera setTimeBudget(long milliseconds) {
+        if (milliseconds < 0)
+            throw new IllegalArgumentException("Time budget must not be negative");
+        this.timeBudget = milliseconds;
+        return this;
+    }
+
+    /**
+     * get the sample statistics of the last render
+     * @return the amounts of samples per pixel, null if the last render traced a fixed amount per pixel
+     * with the regular or the corner-based adaptive super-sampling
+     */
+    public SampleStats getSampleStats() {
+        return sampleStats;
+    }
+
+    /**
+     * set the variance-driven adaptive sampling - instead of comparing the colors of the corners of the pixel,
+     * every pixel keeps a running mean and variance of its samples and is sampled until the 95% confidence
+     * interval of its mean intensity is within the threshold, or until the largest amount of samples is traced.
+     * The samples are spread over a regular grid of the pixel, coarse to fine.
+     * See {@link #getSampleStats()} for the amounts of samples traced
+     * @param minSamples the samples always traced per pixel
+     * @param maxSamples the largest amount of samples per pixel, 0 to turn the variance-driven sampling off
+     * @param threshold  the allowed error of the mean intensity of a pixel (in color units, 0-255 scale)
+     * @return the Camera object
+     * @throws IllegalArgumentException if the amounts of samples or the threshold are invalid
+     */
+    public Camera setVarianceSampling(int minSamples, int maxSamples, double threshold) {
+        if (maxSamples < 0 || (maxSamples > 0 && (minSamples < 1 || minSamples > maxSamples)))
+            throw new IllegalArgumentException("Samples amounts must satisfy 1 <= minSamples <= maxSamples");
+        if (threshold < 0)
+            throw new IllegalArgumentException("Confidence threshold must not be negative");
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+        this.confidenceThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * set the sampler choosing the positions of the rays in every pixel, instead of the regular
+     * anti-aliasing grid. Low-discrepancy samplers ({@link SobolSampler}, {@link HaltonSampler}) and
+     * {@link StratifiedSampler} cover the pixel evenly with far less rays than a regular grid needs.
+     * The sampler is used by the regular rendering - not by the progressive, time-budgeted and
+     * variance-driven modes
+     * @param sampler the sampler, null to go back to the regular grid
+     * @param samplesPerPixel the amount of rays per pixel
+     * @return the Camera object
+     * @throws IllegalArgumentException if the amount of samples is not positive
+     */
+    public Camera setSampler(Sampler sampler, int samplesPerPixel) {
+        if (samplesPerPixel < 1)
+            throw new IllegalArgumentException("Samples per pixel must be positive");
+        this.sampler = sampler;
+        this.samplesPerPixel = samplesPerPixel;
+        return this;
+    }
+
+    /**
+     * add a region of interest - once there are regions, {@link #renderImage()} renders only the pixels
+     * inside them, and the other pixels of the image are left untouched. Parts of a region outside
+     * the image are ignored
+     * @param x      the first column of the region
+     * @param y      the first row of the region
+     * @param width  the amount of columns of the region
+     * @param height the amount of rows of the region
+     * @return the Camera object
+     * @throws IllegalArgumentException if the region is empty or overlaps a region added before
+     */
+    public Camera addRegion(int x, int y, int width, int height) {
+        if (width < 1 || height < 1)
+            throw new IllegalArgumentException("Region must contain pixels");
+        Tile region = new Tile(x, y, x + width, y + height);
+        for (Tile other : regions)
+            if (other.overlaps(region))
+                throw new IllegalArgumentException("Regions must not overlap");
+        regions.add(region);
+        return this;
+    }
+
+    /**
+     * remove all the regions of interest, so the whole image is rendered
+     * @return the Camera object
+     */
+    public Camera clearRegions() {
+        regions.clear();
+        return this;
+    }
+
+    /**
+     * set the amount of worker processes rendering the tiles - the camera settings and the scene are
+     * serialized and sent over a local socket to worker JVMs started on this host ({@link RenderWorker}),
+     * which render the tiles they are handed and send back the pixels. The tiles of a worker that dies
+     * are handed to the other workers, and the tiles left when no worker is alive are rendered in this process.
+     * The image is the same as the one rendered in this process. The progressive and time-budgeted modes
+     * are always rendered in this process, and the variance-driven sampling statistics are not collected
+     * @param workerProcesses the amount of worker processes, 0 to render in this process
+     * @return the Camera object
+     * @throws IllegalArgumentException if the amount is negative
+     */
+    public Camera setWorkerProcesses(int workerProcesses) {
+        if (workerProcesses < 0)
+            throw new IllegalArgumentException("Worker processes amount must not be negative");
+        this.workerProcesses = workerProcesses;
+        return this;
+    }
+
+    /**
+     * set the checkpoint file of the renders - the finished tiles and their amounts of samples are written
+     * to the file periodically, so a render whose process was killed can be resumed by a render of the same
+     * scene and settings, which renders only the tiles not in the file. The file is removed once the render
+     * is complete. Checkpoints are kept by the renders in this process with the regular, sampler or
+     * variance-driven sampling - not by the progressive, time-budgeted and distributed renders
+     * @param file         the checkpoint file, null to turn the checkpoints off
+     * @param milliseconds the least time between writes of the file - every write holds the whole image,
+     *                     so it should be far longer than rendering a tile. A render that fails or is
+     *                     cancelled writes all its finished tiles before it ends
+     * @param resume       true to start the render from the tiles of an existing checkpoint file
+     * @return the Camera object
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public Camera setCheckpoint(Path file, long milliseconds, boolean resume) {
+        if (milliseconds <= 0)
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        this.checkpointFile = file;
+        this.checkpointInterval = milliseconds;
+        this.resume = resume;
+        return this;
+    }
 }
@@ -0,0 +1,278 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Checkpoint keeps the finished tiles of a render on disk, so a render whose process was killed
+ * can be resumed without rendering these tiles again.
+ * <p>
+ * The file is compressed and holds a fingerprint of the render setup, a bitmap of the finished tiles,
+ * the pixels of the finished tiles (3 bytes per pixel) and their amounts of samples when the render
+ * counts them. It is replaced atomically, so a killed process leaves either the previous or the new
+ * checkpoint, never a partial one.
+ * <p>
+ * The file is written by a thread of its own, so the rendering threads only mark their finished tiles.
+ * The pixels of a finished tile do not change any more, so a write needs only a snapshot of the finished
+ * tiles, and requests made while a write is pending are coalesced into it.
+ *
+ * @author ori shoshana and amir hay
+ */
+class Checkpoint {
+    /** Marks a checkpoint file ("RTCP") */
+    private static final int MAGIC = 0x52544350;
+    private static final int VERSION = 1;
+
+    private final Path file;
+    private final long interval;
+    private final RenderTarget target;
+    private final int[] samples;
+    private final long fingerprint;
+    /** Index of every tile in the tiles of the target */
+    private final Map<Tile, Integer> indices = new IdentityHashMap<>();
+    /** Finished tiles, by their index in the tiles of the target */
+    private final BitSet done = new BitSet();
+    private long lastWrite = System.currentTimeMillis();
+    /** Writes the file off the rendering threads */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "checkpoint-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Whether a write is queued and has not taken its snapshot yet */
+    private boolean writePending = false;
+    /** The failure of a background write, reported to the rendering threads */
+    private volatile IllegalStateException failure;
+
+    /**
+     * Constructs the checkpoint of a render
+     *
+     * @param file        the checkpoint file
+     * @param interval    the least time between writes of the file, in milliseconds (positive)
+     * @param target      the tiles of the render and their image
+     * @param samples     the amounts of samples per view plane pixel of the render, null if it does not count them
+     * @param fingerprint the fingerprint of the render setup (see {@link #fingerprint(RenderTarget, Serializable...)})
+     */
+    Checkpoint(Path file, long interval, RenderTarget target, int[] samples, long fingerprint) {
+        this.file = file;
+        this.interval = interval;
+        this.target = target;
+        this.samples = samples;
+        this.fingerprint = fingerprint;
+        for (int i = 0; i < target.tiles.length; ++i)
+            indices.put(target.tiles[i], i);
+    }
+
+    /**
+     * Calculates the fingerprint of a render - a checkpoint is resumed only by a render with the same
+     * fingerprint, i.e. with the same scene, view plane, sampling settings and tiles
+     *
+     * @param target the tiles of the render
+     * @param setup  the objects and values determining the colors of the pixels
+     * @return the fingerprint
+     */
+    static long fingerprint(RenderTarget target, Serializable... setup) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+                for (Serializable value : setup) out.writeObject(value);
+                out.writeInt(target.nX);
+                out.writeInt(target.nY);
+                for (Tile tile : target.tiles) {
+                    out.writeInt(tile.x0);
+                    out.writeInt(tile.y0);
+                    out.writeInt(tile.x1);
+                    out.writeInt(tile.y1);
+                }
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException("Render fingerprint failed", e);
+        }
+    }
+
+    /**
+     * Loads the finished tiles of the checkpoint file to the image of the render, if the file exists
+     *
+     * @throws IllegalStateException if the file belongs to another render or cannot be read
+     */
+    synchronized void resume() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION)
+                throw new IllegalStateException("Not a render checkpoint: " + file);
+            if (in.readLong() != fingerprint || in.readInt() != target.tiles.length)
+                throw new IllegalStateException("The checkpoint " + file + " belongs to another render");
+            byte[] bitmap = new byte[(target.tiles.length + 7) / 8];
+            in.readFully(bitmap);
+            done.or(BitSet.valueOf(bitmap));
+            for (int i = done.nextSetBit(0); i >= 0; i = done.nextSetBit(i + 1)) {
+                Tile tile = target.tiles[i];
+                for (int row = tile.y0; row < tile.y1; ++row)
+                    for (int col = tile.x0; col < tile.x1; ++col)
+                        target.writePixel(col, row, in.readUnsignedByte() << 16 | in.readUnsignedShort());
+            }
+            if (in.readBoolean() && samples != null)
+                for (int i = done.nextSetBit(0); i >= 0; i = done.nextSetBit(i + 1)) {
+                    Tile tile = target.tiles[i];
+                    for (int row = tile.y0; row < tile.y1; ++row)
+                        for (int col = tile.x0; col < tile.x1; ++col)
+                            samples[row * target.nX + col] = in.readInt();
+                }
+        } catch (NoSuchFileException e) {
+            // nothing to resume - the render starts from scratch
+        } catch (IOException e) {
+            throw new IllegalStateException("Reading the checkpoint " + file + " failed", e);
+        }
+    }
+
+    /**
+     * @return the tiles of the render which are not finished yet
+     */
+    synchronized Tile[] pending() {
+        Tile[] pending = new Tile[target.tiles.length - done.cardinality()];
+        for (int i = done.nextClearBit(0), k = 0; k < pending.length; i = done.nextClearBit(i + 1))
+            pending[k++] = target.tiles[i];
+        return pending;
+    }
+
+    /**
+     * Marks a tile of the render as finished, and queues a write of the checkpoint file if the interval has
+     * passed since it was last written. The pixels of the tile must be already written to the image
+     *
+     * @param tile the finished tile - one of the tiles of the target
+     * @throws IllegalStateException if a former write of the file failed
+     */
+    void tileDone(Tile tile) {
+        if (failure != null) throw failure;
+        synchronized (this) {
+            done.set(indices.get(tile));
+            long now = System.currentTimeMillis();
+            if (writePending || now - lastWrite < interval) return;
+            writePending = true;
+            lastWrite = now;
+        }
+        writer.execute(() -> {
+            try {
+                write(snapshot());
+            } catch (IllegalStateException e) {
+                failure = e;
+            }
+        });
+    }
+
+    /**
+     * Takes the finished tiles for a write, allowing another write to be queued
+     *
+     * @return a copy of the finished tiles
+     */
+    private synchronized BitSet snapshot() {
+        writePending = false;
+        return (BitSet) done.clone();
+    }
+
+    /**
+     * Writes the finished tiles to the checkpoint file, replacing the previous one
+     *
+     * @param done the finished tiles
+     * @throws IllegalStateException if the file cannot be written
+     */
+    private void write(BitSet done) {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(Files.newOutputStream(temp))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint);
+            out.writeInt(target.tiles.length);
+            out.write(Arrays.copyOf(done.toByteArray(), (target.tiles.length + 7) / 8));
+            for (int i = done.nextSetBit(0); i >= 0; i = done.nextSetBit(i + 1)) {
+                Tile tile = target.tiles[i];
+                for (int row = tile.y0; row < tile.y1; ++row)
+                    for (int col = tile.x0; col < tile.x1; ++col) {
+                        int rgb = target.readPixel(col, row);
+                        out.writeByte(rgb >> 16);
+                        out.writeShort(rgb);
+                    }
+            }
+            out.writeBoolean(samples != null);
+            if (samples != null)
+                for (int i = done.nextSetBit(0); i >= 0; i = done.nextSetBit(i + 1)) {
+                    Tile tile = target.tiles[i];
+                    for (int row = tile.y0; row < tile.y1; ++row)
+                        for (int col = tile.x0; col < tile.x1; ++col)
+                            out.writeInt(samples[row * target.nX + col]);
+                }
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the checkpoint " + file + " failed", e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing the checkpoint " + file + " failed", e);
+        }
+    }
+
+    /**
+     * Stops the writer thread, waiting for the write in progress
+     */
+    private void stopWriter() {
+        writer.shutdown();
+        try {
+            while (!writer.awaitTermination(1, TimeUnit.MINUTES)) ;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes all the finished tiles once the render has failed or was cancelled, so it can be resumed
+     * from all of them
+     *
+     * @param error the failure of the render - a failure of the write is added to it
+     */
+    void abort(Throwable error) {
+        stopWriter();
+        try {
+            write(snapshot());
+        } catch (IllegalStateException e) {
+            error.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Removes the checkpoint file once the render is complete
+     */
+    void finish() {
+        stopWriter();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            throw new IllegalStateException("Removing the checkpoint " + file + " failed", e);
+        }
+    }
+}
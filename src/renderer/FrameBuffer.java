@@ -0,0 +1,99 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * FrameBuffer accumulates the color samples of every pixel of an image, so that an image can be
+ * refined over several passes. The sums are kept in primitive arrays - three channels per pixel,
+ * together with the sum of the squared intensities for estimating the noise of every pixel.<br/>
+ * A pixel must be updated by a single thread at a time - the renderer assigns every pixel of a pass
+ * to exactly one tile.
+ *
+ * @author ori shoshana and amir hay
+ */
+class FrameBuffer {
+    private final int nX;
+    private final double[] sum;
+    private final double[] sumSquares;
+    private final int[] samples;
+
+    /**
+     * Constructs an empty frame buffer
+     *
+     * @param nX amount of pixels by width
+     * @param nY amount of pixels by height
+     */
+    FrameBuffer(int nX, int nY) {
+        this.nX = nX;
+        sum = new double[3 * nX * nY];
+        sumSquares = new double[nX * nY];
+        samples = new int[nX * nY];
+    }
+
+    /**
+     * Adds a color sample to a pixel
+     *
+     * @param x     X axis index of the pixel
+     * @param y     Y axis index of the pixel
+     * @param color the sampled color
+     */
+    void add(int x, int y, Color color) {
+        int i = y * nX + x;
+        sum[3 * i] += color.getRed();
+        sum[3 * i + 1] += color.getGreen();
+        sum[3 * i + 2] += color.getBlue();
+        double intensity = (color.getRed() + color.getGreen() + color.getBlue()) / 3;
+        sumSquares[i] += intensity * intensity;
+        samples[i]++;
+    }
+
+    /**
+     * Returns the average color of the samples of a pixel
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @return the average color, black if the pixel has no samples
+     */
+    Color getColor(int x, int y) {
+        int i = y * nX + x;
+        int n = samples[i];
+        if (n == 0) return Color.BLACK;
+        return new Color(sum[3 * i] / n, sum[3 * i + 1] / n, sum[3 * i + 2] / n);
+    }
+
+    /**
+     * Returns the amount of samples of a pixel
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @return the amount of samples
+     */
+    int getSamples(int x, int y) {
+        return samples[y * nX + x];
+    }
+
+    /**
+     * Estimates the variance of the intensity of the samples of a pixel
+     *
+     * @param x X axis index of the pixel
+     * @param y Y axis index of the pixel
+     * @return the sample variance, 0 if the pixel has less than two samples
+     */
+    double getVariance(int x, int y) {
+        int i = y * nX + x;
+        int n = samples[i];
+        if (n < 2) return 0;
+        double mean = (sum[3 * i] + sum[3 * i + 1] + sum[3 * i + 2]) / 3 / n;
+        return Math.max(0, (sumSquares[i] - n * mean * mean) / (n - 1));
+    }
+
+    /**
+     * Summarizes the amounts of samples of the pixels of some tiles
+     *
+     * @param tiles the tiles to summarize
+     * @return the sample statistics
+     */
+    SampleStats getStats(Tile[] tiles) {
+        return SampleStats.of(samples, nX, tiles);
+    }
+}
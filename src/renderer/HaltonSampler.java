@@ -0,0 +1,60 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Halton sampler - the samples are the points of the Halton sequence in bases 2 and 3.
+ * The sequence is shifted by a random offset (modulo 1) in every pixel, so that neighbouring pixels
+ * do not share their sample pattern.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class HaltonSampler implements Sampler {
+    private static final long serialVersionUID = 1L;
+
+    private final long seed;
+
+    /**
+     * Constructs a Halton sampler with seed 0
+     */
+    public HaltonSampler() {
+        this(0);
+    }
+
+    /**
+     * Constructs a Halton sampler
+     *
+     * @param seed the seed of the pixel offsets
+     */
+    public HaltonSampler(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void sample(int x, int y, int count, double[] points) {
+        SplittableRandom random = new SplittableRandom(Sampler.pixelSeed(seed, x, y));
+        double shiftX = random.nextDouble(), shiftY = random.nextDouble();
+        for (int k = 0; k < count; ++k) {
+            points[2 * k] = wrap(radicalInverse(k + 1, 2) + shiftX);
+            points[2 * k + 1] = wrap(radicalInverse(k + 1, 3) + shiftY);
+        }
+    }
+
+    /**
+     * Mirrors the digits of an index around the radix point
+     *
+     * @param index the index in the sequence
+     * @param base  the base of the digits
+     * @return the radical inverse in [0, 1)
+     */
+    static double radicalInverse(int index, int base) {
+        double result = 0, digitValue = 1d / base;
+        for (; index > 0; index /= base, digitValue /= base)
+            result += index % base * digitValue;
+        return result;
+    }
+
+    private static double wrap(double value) {
+        return value >= 1 ? value - 1 : value;
+    }
+}
@@ -90,4 +90,28 @@ public class ImageWriter {
         image.setRGB(xIndex, yIndex, color.getColor().getRGB());
     }
 
+    /**
+     * The function writePixel writes a packed RGB value of a specific pixel into pixel color
+     * matrix
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @param rgb    the pixel color as packed RGB value (as returned by {@link #getPixel(int, int)})
+     */
+    public void writePixel(int xIndex, int yIndex, int rgb) {
+        image.setRGB(xIndex, yIndex, rgb);
+    }
+
+    /**
+     * The function getPixel reads the color of a specific pixel from the pixel color
+     * matrix
+     *
+     * @param xIndex X axis index of the pixel
+     * @param yIndex Y axis index of the pixel
+     * @return the pixel color as packed RGB value
+     */
+    public int getPixel(int xIndex, int yIndex) {
+        return image.getRGB(xIndex, yIndex) & 0xFFFFFF;
+    }
+
 }
@@ -0,0 +1,179 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static primitives.Util.*;
+
+/**
+ * PrimaryRayGenerator generates the rays from the camera through the pixels of the view plane.
+ * The displacement vectors of the pixel columns and rows from the view plane center and of the
+ * sub-pixels of the anti-aliasing grid from the pixel center are calculated once, into primitive
+ * tables, so the direction of every ray takes only a few additions of doubles, and the only objects
+ * created per ray are the ray and its direction. The additions follow
+ * {@link Camera#constructRays(int, int, int, int)} step by step, so both give exactly the same rays.<br/>
+ * The generator is immutable - it may be shared by all the rendering threads and reused by
+ * the following renders of the same camera with the same resolution and anti-aliasing
+ * (see {@link #matches(Point, Point, double, double, int, int, int)}).
+ *
+ * @author ori shoshana and amir hay
+ */
+class PrimaryRayGenerator {
+    private final Point origin;
+    private final Point centerPoint;
+    private final double width, height;
+    private final int nX, nY, n;
+
+    private final double originX, originY, originZ;
+    private final double centerX, centerY, centerZ;
+    private final double rightX, rightY, rightZ;
+    private final double upX, upY, upZ;
+    /** Width and height of a pixel */
+    private final double rX, rY;
+    /** Displacements of the pixel centers from the view plane center along vRight - three coordinates per column */
+    private final double[] columnDisplacements;
+    /** Displacements of the pixel centers from the view plane center along vUp - three coordinates per row */
+    private final double[] rowDisplacements;
+    /**
+     * Displacements of the sub-pixel centers from the pixel center - per sub-pixel three coordinates
+     * along vUp and then three coordinates along vRight
+     */
+    private final double[] subPixelDisplacements;
+
+    /**
+     * Constructs the generator of the rays of a view plane
+     *
+     * @param p0          the location of the camera
+     * @param centerPoint the center of the view plane
+     * @param vRight      the right direction of the camera (normalized)
+     * @param vUp         the up direction of the camera (normalized)
+     * @param width       the width of the view plane
+     * @param height      the height of the view plane
+     * @param nX          the number of pixels in the X direction
+     * @param nY          the number of pixels in the Y direction
+     * @param n           the number of sub-pixels in a row and in a column of the anti-aliasing grid
+     */
+    PrimaryRayGenerator(Point p0, Point centerPoint, Vector vRight, Vector vUp,
+                        double width, double height, int nX, int nY, int n) {
+        this.origin = p0;
+        this.centerPoint = centerPoint;
+        this.width = width;
+        this.height = height;
+        this.nX = nX;
+        this.nY = nY;
+        this.n = n;
+        originX = p0.getX();
+        originY = p0.getY();
+        originZ = p0.getZ();
+        centerX = centerPoint.getX();
+        centerY = centerPoint.getY();
+        centerZ = centerPoint.getZ();
+        rightX = vRight.getX();
+        rightY = vRight.getY();
+        rightZ = vRight.getZ();
+        upX = vUp.getX();
+        upY = vUp.getY();
+        upZ = vUp.getZ();
+
+        rX = alignZero(width / nX);
+        rY = alignZero(height / nY);
+        // A zero offset gives a zero displacement, and adding it leaves the coordinate unchanged
+        columnDisplacements = new double[3 * nX];
+        for (int j = 0; j < nX; ++j)
+            putRight(columnDisplacements, 3 * j, alignZero((j - ((nX - 1d) / 2d)) * rX));
+        rowDisplacements = new double[3 * nY];
+        for (int i = 0; i < nY; ++i)
+            putUp(rowDisplacements, 3 * i, alignZero(-(i - ((nY - 1d) / 2d)) * rY));
+
+        double subX = width / nX / n, subY = height / nY / n;
+        subPixelDisplacements = new double[6 * n * n];
+        for (int row = 0; row < n; ++row)
+            for (int col = 0; col < n; ++col) {
+                int k = 6 * (row * n + col);
+                putUp(subPixelDisplacements, k, -(row - (n - 1d) / 2) * subY);
+                putRight(subPixelDisplacements, k + 3, (col - (n - 1d) / 2) * subX);
+            }
+    }
+
+    private void putRight(double[] table, int i, double offset) {
+        table[i] = rightX * offset;
+        table[i + 1] = rightY * offset;
+        table[i + 2] = rightZ * offset;
+    }
+
+    private void putUp(double[] table, int i, double offset) {
+        table[i] = upX * offset;
+        table[i + 1] = upY * offset;
+        table[i + 2] = upZ * offset;
+    }
+
+    /**
+     * Checks whether the generator gives the rays of a camera setup, so it may be reused
+     *
+     * @param p0          the location of the camera
+     * @param centerPoint the center of the view plane
+     * @param width       the width of the view plane
+     * @param height      the height of the view plane
+     * @param nX          the number of pixels in the X direction
+     * @param nY          the number of pixels in the Y direction
+     * @param n           the number of sub-pixels in a row and in a column of the anti-aliasing grid
+     * @return true if the generator was built for this setup
+     */
+    boolean matches(Point p0, Point centerPoint, double width, double height, int nX, int nY, int n) {
+        return origin == p0 && this.centerPoint == centerPoint && this.width == width && this.height == height
+                && this.nX == nX && this.nY == nY && this.n == n;
+    }
+
+    /**
+     * @return the amount of rays through a pixel - the sub-pixels of the anti-aliasing grid
+     */
+    int raysPerPixel() {
+        return n * n;
+    }
+
+    /**
+     * Generates the rays through all the sub-pixels of a pixel, row by row
+     *
+     * @param col  the column of the pixel
+     * @param row  the row of the pixel
+     * @param rays the buffer to fill, of {@link #raysPerPixel()} rays
+     */
+    void generate(int col, int row, Ray[] rays) {
+        for (int k = 0; k < rays.length; ++k)
+            rays[k] = generate(col, row, k);
+    }
+
+    /**
+     * Generates the ray through a single sub-pixel of a pixel
+     *
+     * @param col      the column of the pixel
+     * @param row      the row of the pixel
+     * @param subPixel the index of the sub-pixel in the grid (row * n + column)
+     * @return the ray through the center of the sub-pixel
+     */
+    Ray generate(int col, int row, int subPixel) {
+        int c = 3 * col, r = 3 * row, s = 6 * subPixel;
+        double[] sub = subPixelDisplacements;
+        double x = centerX + columnDisplacements[c] + rowDisplacements[r] + sub[s] + sub[s + 3];
+        double y = centerY + columnDisplacements[c + 1] + rowDisplacements[r + 1] + sub[s + 1] + sub[s + 4];
+        double z = centerZ + columnDisplacements[c + 2] + rowDisplacements[r + 2] + sub[s + 2] + sub[s + 5];
+        return new Ray(origin, x - originX, y - originY, z - originZ);
+    }
+
+    /**
+     * Generates the ray through a position inside a pixel
+     *
+     * @param col the column of the pixel
+     * @param row the row of the pixel
+     * @param u   the horizontal position in the pixel - 0 at its left edge and 1 at its right edge
+     * @param v   the vertical position in the pixel - 0 at its top edge and 1 at its bottom edge
+     * @return the ray through the position
+     */
+    Ray generate(int col, int row, double u, double v) {
+        double xJ = (col + u - nX / 2d) * rX, yI = -(row + v - nY / 2d) * rY;
+        return new Ray(origin, centerX + rightX * xJ + upX * yI - originX,
+                centerY + rightY * xJ + upY * yI - originY,
+                centerZ + rightZ * xJ + upZ * yI - originZ);
+    }
+}
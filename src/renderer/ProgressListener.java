@@ -0,0 +1,17 @@
+package renderer;
+
+/**
+ * Listener of the progress of an asynchronous render.
+ *
+ * @author ori shoshana and amir hay
+ */
+@FunctionalInterface
+public interface ProgressListener {
+    /**
+     * Called by the rendering threads after every finished tile - possibly by several threads at the
+     * same time, so the listener must be thread-safe and should return quickly
+     *
+     * @param task the render, holding its current progress
+     */
+    void progress(RenderTask task);
+}
@@ -3,6 +3,7 @@ package renderer;
 import primitives.*;
 import scene.*;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -10,13 +11,30 @@ import java.util.List;
  *  1) traces rays through a scene
  *  2) finding a color of an object that intersects closest to the ray
  */
-public abstract class RayTracerBase {
+public abstract class RayTracerBase implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     protected Scene scene;
+    /**
+     * Seed of the random choices of the tracer - every pixel draws from its own stream derived from
+     * the seed and the pixel, so the same seed gives the same image whatever the order of the pixels is
+     */
+    protected long seed = 0;
 
     public RayTracerBase(Scene scene) {
         this.scene = scene;
     }
 
+    /**
+     * Sets the seed of the random choices of the tracer
+     * @param seed the seed
+     * @return this tracer
+     */
+    public RayTracerBase setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
     /**
      * Tracing a ray through a scene and finding the color of the object closest to the head of the ray
      * @param ray The ray to trace the scene with
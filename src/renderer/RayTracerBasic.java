@@ -9,7 +9,7 @@ import static geometries.Intersectable.GeoPoint;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import static java.awt.Color.BLACK;
 import static primitives.Util.*;
@@ -18,6 +18,7 @@ import static primitives.Util.*;
  * RayTracerBasic class that extends the RayTracer class
  */
 public class RayTracerBasic extends RayTracerBase {
+    private static final long serialVersionUID = 1L;
 
     private static final int MAX_CALC_COLOR_LEVEL = 10;
     private static final double MIN_CALC_COLOR_K = 0.001;
@@ -99,11 +100,7 @@ public class RayTracerBasic extends RayTracerBase {
      * @return The closest intersection point.
      */
     private GeoPoint findClosestIntersection(Ray ray) {
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(ray);
-        if(intersections == null)
-            return null;
-        //returns closest point
-        return ray.findClosestGeoPoint(intersections);
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
@@ -253,21 +250,8 @@ public class RayTracerBasic extends RayTracerBase {
         Vector lightDirection = l.scale(-1); // from point to light source
         Ray lightRay = new Ray(geoPoint.point, lightDirection, n);
         double light = lightSource.getDistance(geoPoint.point);
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections(lightRay,light);
-
-        Double3 ktr = Double3.ONE;
-        if (intersections == null) return INITIAL_K;
-
-        double distance = lightSource.getDistance(geoPoint.point);
-
-        for (GeoPoint intersection : intersections) {
-            Double3 kt = intersection.geometry.getMaterial().kT;
-            ktr = ktr.product(kt);
-            if (ktr.lowerThan(MIN_CALC_COLOR_K)) {
-                return Double3.ZERO;
-            }
-        }
-        return ktr;
+        // any-hit query - stops at the first opaque occluder
+        return scene.geometries.findTransparency(lightRay, light, INITIAL_K, MIN_CALC_COLOR_K);
     }
 
     /**
@@ -337,6 +321,9 @@ public class RayTracerBasic extends RayTracerBase {
     }
     /**
      * Performs regular super-sampling for a given pixel.
+     * Every sub-pixel is sampled at a random position. The positions are drawn from a stream derived from
+     * the seed of the tracer and the pixel, every sample taking the next values of the stream in order,
+     * so the pixel color is the same on every run and on any thread.
      *
      * @param centerP     The center point of the pixel.
      * @param Width       The width of the pixel.
@@ -355,7 +342,7 @@ public class RayTracerBasic extends RayTracerBase {
         int numSubPixelsX = (int) Math.ceil(Width / minWidth);
         int numSubPixelsY = (int) Math.ceil(Height / minHeight);
 
-        Random random = new Random();
+        SplittableRandom random = new SplittableRandom(pixelSeed(centerP));
         // Iterate over sub-pixels and perform regular super-sampling
         for (int i = 0; i < numSubPixelsY; i++) {
             for (int j = 0; j < numSubPixelsX; j++) {
@@ -389,6 +376,18 @@ public class RayTracerBasic extends RayTracerBase {
         return averageColor.reduce(colorList.size());
     }
 
+    /**
+     * Derives the seed of the random stream of a pixel from the seed of the tracer and the pixel center
+     *
+     * @param centerP the center point of the pixel
+     * @return the seed of the pixel stream
+     */
+    private long pixelSeed(Point centerP) {
+        long pixel = Sampler.mix(seed, Double.doubleToLongBits(centerP.getX()));
+        pixel = Sampler.mix(pixel, Double.doubleToLongBits(centerP.getY()));
+        return Sampler.mix(pixel, Double.doubleToLongBits(centerP.getZ()));
+    }
+
     /**
      * Find a point in the list
      *
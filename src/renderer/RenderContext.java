@@ -0,0 +1,159 @@
+package renderer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * RenderContext holds the state of a single render - its tiles, the distribution of the tiles
+ * between the rendering threads and the progress. Every render has its own context,
+ * so several renders can run at the same time in one JVM without interfering.<br/>
+ * The tiles are claimed through an atomic cursor and the progress is counted in a {@link LongAdder},
+ * which keeps a separate counter cell per thread - no lock is taken per pixel or per tile.
+ *
+ * @author ori shoshana and amir hay
+ */
+class RenderContext {
+    private static final String PRINT_FORMAT = "%5.1f%%%n";
+
+    private final Tile[] tiles;
+    private final Consumer<Tile> renderer;
+    private final long totalPixels;
+    /** The asynchronous render the tiles belong to, null for a blocking render */
+    private final RenderTask task;
+
+    private final AtomicInteger nextTile = new AtomicInteger();
+    private final AtomicInteger tilesDone = new AtomicInteger();
+    private final LongAdder pixelsDone = new LongAdder();
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * Constructs the context of a render of an image
+     *
+     * @param nX       the amount of pixel columns
+     * @param nY       the amount of pixel rows
+     * @param tileSize the width and height of a tile in pixels
+     * @param renderer the action rendering a single tile
+     */
+    RenderContext(int nX, int nY, int tileSize, Consumer<Tile> renderer) {
+        this(Tile.split(nX, nY, tileSize), renderer);
+    }
+
+    /**
+     * Constructs the context of a render of some tiles of an image.
+     * The tiles are claimed in the order of the array
+     *
+     * @param tiles    the tiles to render
+     * @param renderer the action rendering a single tile
+     */
+    RenderContext(Tile[] tiles, Consumer<Tile> renderer) {
+        this(tiles, renderer, null);
+    }
+
+    /**
+     * Constructs the context of a render of some tiles of an image, reporting its progress to a task.
+     * The tiles are claimed in the order of the array
+     *
+     * @param tiles    the tiles to render
+     * @param renderer the action rendering a single tile
+     * @param task     the asynchronous render the tiles belong to, null for a blocking render
+     */
+    RenderContext(Tile[] tiles, Consumer<Tile> renderer, RenderTask task) {
+        this.tiles = tiles;
+        this.renderer = renderer;
+        this.task = task;
+        long pixels = 0;
+        for (Tile tile : tiles) pixels += tile.size();
+        this.totalPixels = pixels;
+        if (tiles.length == 0) done.complete(null);
+        if (task != null) task.attach(this);
+    }
+
+    /**
+     * Claims the next tile which is not rendered yet and renders it.
+     * A failure of the renderer fails the whole render.
+     *
+     * @return true if a tile was rendered, false if there are no more tiles or the render has failed
+     */
+    boolean renderNextTile() {
+        if (done.isDone()) return false;
+        int i = nextTile.getAndIncrement();
+        if (i >= tiles.length) return false;
+        try {
+            renderer.accept(tiles[i]);
+        } catch (Throwable e) {
+            done.completeExceptionally(e);
+            return false;
+        }
+        pixelsDone.add(tiles[i].size());
+        if (task != null) task.tileDone(tiles[i].size());
+        if (tilesDone.incrementAndGet() == tiles.length) done.complete(null);
+        return true;
+    }
+
+    /**
+     * Stops the render - the tiles being rendered are finished, but no other tile is claimed,
+     * and {@link #waitToFinish(double)} throws a {@link CancellationException}
+     */
+    void cancel() {
+        done.completeExceptionally(new CancellationException("Rendering was cancelled"));
+    }
+
+    /**
+     * @return true if there are tiles which were not claimed yet
+     */
+    boolean hasMoreTiles() {
+        return nextTile.get() < tiles.length && !done.isDone();
+    }
+
+    /**
+     * @return the amount of tiles in the render
+     */
+    int tilesCount() {
+        return tiles.length;
+    }
+
+    /**
+     * @return the amount of pixels in the tiles of the render
+     */
+    long pixelsCount() {
+        return totalPixels;
+    }
+
+    /**
+     * Wait for all tiles to be done and print the progress percentage - must be
+     * run from the thread which started the render
+     *
+     * @param interval print time interval in seconds, 0 if printing is not required
+     */
+    void waitToFinish(double interval) {
+        long printInterval = (long) (interval * 1000);
+        if (printInterval > 0)
+            System.out.printf(PRINT_FORMAT, 0d);
+        try {
+            while (true) {
+                try {
+                    if (printInterval > 0) done.get(printInterval, TimeUnit.MILLISECONDS);
+                    else done.get();
+                    break;
+                } catch (TimeoutException e) {
+                    System.out.printf(PRINT_FORMAT, 100d * pixelsDone.sum() / totalPixels);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rendering was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException("Rendering failed", e.getCause());
+        }
+        if (printInterval > 0)
+            System.out.printf(PRINT_FORMAT, 100d);
+    }
+}
@@ -0,0 +1,174 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * The coordinator of a distributed render - starts worker processes on this host ({@link RenderWorker}),
+ * sends them the camera over a loopback socket and hands out the tiles of the render, one tile at a time.
+ * A tile is taken back to the queue if its worker dies before sending all of its pixels, and the tiles
+ * left when no worker is alive are handed back to the caller. Workers that cannot be started or do not
+ * connect are reported on the standard error stream.
+ *
+ * @author ori shoshana and amir hay
+ */
+class RenderCoordinator {
+    /** Longest time to wait for the workers to connect, in milliseconds */
+    private static final int CONNECT_TIMEOUT = 30000;
+    /** Interval of checking whether the workers that did not connect yet are still alive, in milliseconds */
+    private static final int ACCEPT_INTERVAL = 100;
+
+    private final Camera camera;
+    private final int nX, nY;
+    private final int workers;
+
+    /**
+     * Constructs the coordinator of a render
+     *
+     * @param camera  the camera sent to the workers
+     * @param nX      the amount of pixel columns of the view plane
+     * @param nY      the amount of pixel rows of the view plane
+     * @param workers the amount of worker processes to start
+     */
+    RenderCoordinator(Camera camera, int nX, int nY, int workers) {
+        this.camera = camera;
+        this.nX = nX;
+        this.nY = nY;
+        this.workers = workers;
+    }
+
+    /**
+     * Returns the command starting a worker process - a JVM with the class path of this one
+     *
+     * @param port  the port the coordinator listens on
+     * @param index the index of the worker
+     * @return the command line
+     */
+    List<String> workerCommand(int port, int index) {
+        return List.of(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java",
+                "-cp", System.getProperty("java.class.path"),
+                RenderWorker.class.getName(), "127.0.0.1", Integer.toString(port));
+    }
+
+    /**
+     * Renders the tiles of the target on the workers and writes their pixels to the image of the target
+     *
+     * @param target   the tiles to render and the image to write them to
+     * @param finished the action called after the pixels of a tile are written
+     * @param leftover the action rendering the tiles no worker has rendered
+     */
+    void render(RenderTarget target, Consumer<Tile> finished, Consumer<Tile[]> leftover) {
+        Queue<Tile> queue = new ConcurrentLinkedQueue<>(Arrays.asList(target.tiles));
+        List<Process> processes = new ArrayList<>();
+        List<Thread> connections = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            for (int i = 0; i < workers; ++i)
+                processes.add(new ProcessBuilder(workerCommand(server.getLocalPort(), i))
+                        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start());
+            // every connected worker is served by its own thread as soon as it connects,
+            // and the connecting stops once all the tiles are handed out or all the workers exited
+            server.setSoTimeout(ACCEPT_INTERVAL);
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT;
+            while (connections.size() < workers && !queue.isEmpty()
+                    && exited(processes) < workers
+                    && System.currentTimeMillis() < deadline) {
+                try {
+                    Socket socket = server.accept();
+                    Thread connection = new Thread(() -> serve(socket, queue, target, finished), "render-worker-" + connections.size());
+                    connection.start();
+                    connections.add(connection);
+                } catch (SocketTimeoutException e) {
+                    // check again whether the workers are alive
+                }
+            }
+            if (connections.isEmpty() && !queue.isEmpty())
+                System.err.println("No render worker connected - rendering the tiles locally");
+            for (Thread connection : connections)
+                connection.join();
+        } catch (IOException e) {
+            // the tiles are rendered by the caller
+            System.err.println("Render workers could not be started - rendering the tiles locally: " + e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            processes.forEach(Process::destroy);
+        }
+        if (!queue.isEmpty())
+            leftover.accept(queue.toArray(new Tile[0]));
+    }
+
+    /**
+     * Counts the worker processes that exited
+     *
+     * @param processes the worker processes
+     * @return the amount of exited processes
+     */
+    private static int exited(List<Process> processes) {
+        int count = 0;
+        for (Process process : processes)
+            if (!process.isAlive()) ++count;
+        return count;
+    }
+
+    /**
+     * Sends the camera to a connected worker and hands it tiles until the queue is empty.
+     * The pixels of a tile are written to the image only once all of them are received,
+     * and a tile whose pixels are not received is put back to the queue
+     *
+     * @param socket   the connection to the worker
+     * @param queue    the tiles not rendered yet
+     * @param target   the image to write the pixels to
+     * @param finished the action called after the pixels of a tile are written
+     */
+    private void serve(Socket socket, Queue<Tile> queue, RenderTarget target, Consumer<Tile> finished) {
+        try (socket) {
+            ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out.writeObject(camera);
+            out.writeInt(nX);
+            out.writeInt(nY);
+            Tile tile;
+            while (!target.cancelled() && (tile = queue.poll()) != null) {
+                int[] pixels = new int[tile.size()];
+                try {
+                    out.writeBoolean(true);
+                    out.writeInt(tile.x0);
+                    out.writeInt(tile.y0);
+                    out.writeInt(tile.x1);
+                    out.writeInt(tile.y1);
+                    out.flush();
+                    for (int k = 0; k < pixels.length; ++k)
+                        pixels[k] = in.readInt();
+                } catch (IOException e) {
+                    queue.add(tile);
+                    throw e;
+                }
+                int k = 0;
+                for (int row = tile.y0; row < tile.y1; ++row)
+                    for (int col = tile.x0; col < tile.x1; ++col)
+                        target.writePixel(col, row, pixels[k++]);
+                finished.accept(tile);
+            }
+            out.writeBoolean(false);
+            out.flush();
+        } catch (IOException e) {
+            // the worker died - its tile is back in the queue for the other workers
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package renderer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RenderPool is a bounded pool of rendering threads shared by all the renders in the JVM.<br/>
+ * A render takes part in the pool through a few tile runners. A runner renders one tile and then
+ * forks its successor to the end of the queue, so the tiles of concurrent renders are interleaved
+ * and every render gets a fair share of the threads. The pool works in FIFO (async) mode and
+ * idle threads steal runners from busy ones.
+ *
+ * @author ori shoshana and amir hay
+ */
+class RenderPool {
+    private static final RenderPool SHARED = new RenderPool(Runtime.getRuntime().availableProcessors());
+    /**
+     * Factory of the virtual-thread-per-task executor, which exists from JDK 21 on - null on older JDKs
+     */
+    private static final Method VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a pool
+     *
+     * @param parallelism the amount of rendering threads
+     */
+    RenderPool(int parallelism) {
+        pool = new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * @return the pool shared by all the renders, with a thread per available processor
+     */
+    static RenderPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Starts rendering the tiles of a render
+     *
+     * @param context     the render
+     * @param parallelism the maximal amount of threads working on the render at the same time
+     */
+    void submit(RenderContext context, int parallelism) {
+        int runners = Math.min(Math.max(1, parallelism), context.tilesCount());
+        for (int i = 0; i < runners; ++i)
+            pool.execute(new TileRunner(context));
+    }
+
+    /**
+     * Starts rendering the tiles of a render with a separate task per tile. On JDK 21 and later
+     * every task runs on its own virtual thread, on older JDKs the tasks are queued in this pool.
+     *
+     * @param context the render
+     */
+    void submitPerTile(RenderContext context) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual == null) {
+            for (int i = 0; i < context.tilesCount(); ++i)
+                pool.execute(context::renderNextTile);
+            return;
+        }
+        for (int i = 0; i < context.tilesCount(); ++i)
+            virtual.execute(context::renderNextTile);
+        // no more tasks - the executor's threads end with their tiles
+        virtual.shutdown();
+    }
+
+    /**
+     * @return true if the running JDK supports virtual threads
+     */
+    static boolean virtualThreadsSupported() {
+        return VIRTUAL_EXECUTOR != null;
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        if (VIRTUAL_EXECUTOR == null) return null;
+        try {
+            return (ExecutorService) VIRTUAL_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Renders a single tile of a render and re-schedules itself while the render has tiles left
+     */
+    private static class TileRunner extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RenderContext context;
+
+        TileRunner(RenderContext context) {
+            this.context = context;
+        }
+
+        @Override
+        protected void compute() {
+            if (context.renderNextTile() && context.hasMoreTiles())
+                new TileRunner(context).fork();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package renderer;
+
+import primitives.Color;
+
+/**
+ * RenderTarget describes what a single render produces - the resolution of the whole view plane,
+ * the tiles of it to render and the image receiving the rendered pixels. The image may be the whole
+ * view plane or a crop of it, in which case the pixels are shifted to the crop origin.
+ *
+ * @author ori shoshana and amir hay
+ */
+class RenderTarget {
+    /** Resolution of the whole view plane */
+    final int nX, nY;
+    /** Tiles of the view plane to render */
+    final Tile[] tiles;
+    /** Image receiving the rendered pixels */
+    final ImageWriter image;
+    /** View plane pixel written to the pixel (0, 0) of the image */
+    private final int x0, y0;
+    /** The asynchronous render of the target, null for a blocking render */
+    final RenderTask task;
+
+    /**
+     * Constructs the target of a render
+     *
+     * @param nX    the amount of pixel columns of the view plane
+     * @param nY    the amount of pixel rows of the view plane
+     * @param tiles the tiles to render
+     * @param image the image receiving the pixels
+     * @param x0    the view plane column written to the column 0 of the image
+     * @param y0    the view plane row written to the row 0 of the image
+     */
+    RenderTarget(int nX, int nY, Tile[] tiles, ImageWriter image, int x0, int y0) {
+        this(nX, nY, tiles, image, x0, y0, null);
+    }
+
+    /**
+     * Constructs the target of an asynchronous render
+     *
+     * @param nX    the amount of pixel columns of the view plane
+     * @param nY    the amount of pixel rows of the view plane
+     * @param tiles the tiles to render
+     * @param image the image receiving the pixels
+     * @param x0    the view plane column written to the column 0 of the image
+     * @param y0    the view plane row written to the row 0 of the image
+     * @param task  the handle of the render, null for a blocking render
+     */
+    RenderTarget(int nX, int nY, Tile[] tiles, ImageWriter image, int x0, int y0, RenderTask task) {
+        this.nX = nX;
+        this.nY = nY;
+        this.tiles = tiles;
+        this.image = image;
+        this.x0 = x0;
+        this.y0 = y0;
+        this.task = task;
+    }
+
+    /**
+     * Writes a rendered pixel to the image
+     *
+     * @param col   the view plane column of the pixel
+     * @param row   the view plane row of the pixel
+     * @param color the color of the pixel
+     */
+    void writePixel(int col, int row, Color color) {
+        image.writePixel(col - x0, row - y0, color);
+    }
+
+    /**
+     * Writes a rendered pixel given as packed RGB value to the image
+     *
+     * @param col the view plane column of the pixel
+     * @param row the view plane row of the pixel
+     * @param rgb the color of the pixel as packed RGB value
+     */
+    void writePixel(int col, int row, int rgb) {
+        image.writePixel(col - x0, row - y0, rgb);
+    }
+
+    /**
+     * Counts primary rays traced for the target, if its render reports progress
+     *
+     * @param rays the amount of rays
+     */
+    void raysTraced(long rays) {
+        if (task != null) task.raysTraced(rays);
+    }
+
+    /**
+     * @return true if the render of the target was cancelled
+     */
+    boolean cancelled() {
+        return task != null && task.cancelRequested();
+    }
+
+    /**
+     * Reads a rendered pixel from the image
+     *
+     * @param col the view plane column of the pixel
+     * @param row the view plane row of the pixel
+     * @return the color of the pixel as packed RGB value
+     */
+    int readPixel(int col, int row) {
+        return image.getPixel(col - x0, row - y0);
+    }
+
+    /**
+     * Creates a target of other tiles of the same view plane and image
+     *
+     * @param tiles the tiles to render
+     * @return the new target
+     */
+    RenderTarget withTiles(Tile[] tiles) {
+        return new RenderTarget(nX, nY, tiles, image, x0, y0, task);
+    }
+}
@@ -0,0 +1,200 @@
+package renderer;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RenderTask is the handle of an asynchronous render (see {@link Camera#renderImageAsync()}).
+ * It completes with the camera once the image writer holds the whole image, and exposes the progress
+ * of the render while it runs - the tiles and pixels done, the primary rays traced and the estimated
+ * remaining time.<br/>
+ * Cancelling the task stops the render cooperatively - the rendering threads finish the tiles they are
+ * working on and do not claim any other tile. In the progressive and time-budgeted modes the tiles
+ * and pixels counts cover the passes started so far.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class RenderTask implements Future<Camera> {
+    private final CompletableFuture<Camera> result = new CompletableFuture<>();
+    private final List<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+    private final long start = System.nanoTime();
+
+    private final AtomicInteger tilesCount = new AtomicInteger();
+    private final AtomicInteger tilesDone = new AtomicInteger();
+    private final LongAdder pixelsCount = new LongAdder();
+    private final LongAdder pixelsDone = new LongAdder();
+    private final LongAdder raysTraced = new LongAdder();
+
+    private volatile boolean cancelled = false;
+    /** The tiles being rendered now */
+    private volatile RenderContext current;
+
+    /**
+     * Constructs the handle of a render which has not started yet
+     */
+    RenderTask() {
+    }
+
+    /**
+     * Adds a listener called after every finished tile
+     *
+     * @param listener the listener
+     * @return this task
+     */
+    public RenderTask addProgressListener(ProgressListener listener) {
+        listeners.add(listener);
+        return this;
+    }
+
+    /**
+     * @return the amount of tiles finished so far
+     */
+    public int getTilesDone() {
+        return tilesDone.get();
+    }
+
+    /**
+     * @return the amount of tiles of the render
+     */
+    public int getTilesCount() {
+        return tilesCount.get();
+    }
+
+    /**
+     * @return the amount of pixels of the finished tiles
+     */
+    public long getPixelsDone() {
+        return pixelsDone.sum();
+    }
+
+    /**
+     * @return the amount of pixels of the render
+     */
+    public long getPixelsCount() {
+        return pixelsCount.sum();
+    }
+
+    /**
+     * @return the amount of primary rays traced so far
+     */
+    public long getRaysTraced() {
+        return raysTraced.sum();
+    }
+
+    /**
+     * @return the done part of the render, between 0 and 1
+     */
+    public double getProgress() {
+        if (result.isDone()) return 1;
+        long total = pixelsCount.sum();
+        return total == 0 ? 0 : Math.min(1, (double) pixelsDone.sum() / total);
+    }
+
+    /**
+     * Estimates the remaining time of the render from its progress so far
+     *
+     * @return the estimated remaining time in milliseconds, -1 while nothing is done yet
+     */
+    public long getEtaMillis() {
+        double progress = getProgress();
+        if (progress >= 1) return 0;
+        if (progress == 0) return -1;
+        double elapsed = (System.nanoTime() - start) / 1e6;
+        return Math.round(elapsed * (1 - progress) / progress);
+    }
+
+    /**
+     * Cancels the render - the rendering threads finish their current tiles and stop.
+     * The image writer is left with the pixels rendered so far
+     *
+     * @param mayInterruptIfRunning ignored - the rendering threads are never interrupted
+     * @return false if the render has already completed, true otherwise
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (result.isDone()) return false;
+        cancelled = true;
+        RenderContext context = current;
+        if (context != null) context.cancel();
+        return result.cancel(false);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    @Override
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    @Override
+    public Camera get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    @Override
+    public Camera get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return result.get(timeout, unit);
+    }
+
+    /**
+     * Registers the tiles the render starts working on, and stops them at once if the task is cancelled
+     *
+     * @param context the tiles
+     */
+    void attach(RenderContext context) {
+        tilesCount.addAndGet(context.tilesCount());
+        pixelsCount.add(context.pixelsCount());
+        current = context;
+        if (cancelled) context.cancel();
+    }
+
+    /**
+     * Counts a finished tile and notifies the listeners
+     *
+     * @param pixels the amount of pixels of the tile
+     */
+    void tileDone(int pixels) {
+        pixelsDone.add(pixels);
+        tilesDone.incrementAndGet();
+        for (ProgressListener listener : listeners)
+            listener.progress(this);
+    }
+
+    /**
+     * Counts traced primary rays
+     *
+     * @param rays the amount of rays
+     */
+    void raysTraced(long rays) {
+        raysTraced.add(rays);
+    }
+
+    /**
+     * @return true if the render was cancelled
+     */
+    boolean cancelRequested() {
+        return cancelled;
+    }
+
+    /**
+     * Completes the task once the render has ended
+     *
+     * @param camera the camera of the render
+     * @param error  the failure of the render, null if it succeeded
+     */
+    void complete(Camera camera, Throwable error) {
+        if (error == null) result.complete(camera);
+        else if (!(error instanceof CancellationException && cancelled)) result.completeExceptionally(error);
+    }
+}
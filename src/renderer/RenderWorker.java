@@ -0,0 +1,53 @@
+package renderer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.net.Socket;
+
+/**
+ * A render worker process - connects to the coordinator of a distributed render ({@link RenderCoordinator}),
+ * receives the camera with its scene and renders the tiles it is handed until the coordinator has no more tiles.
+ * <p>
+ * Protocol: the coordinator sends the serialized camera and the resolution of the view plane (nX, nY),
+ * then for every tile a true flag and the tile bounds (x0, y0, x1, y1), and a false flag when done.
+ * The worker answers every tile with its pixels as packed RGB values, row by row.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class RenderWorker {
+
+    private RenderWorker() {
+    }
+
+    /**
+     * Runs a worker
+     *
+     * @param args the coordinator host and port, and optionally the amount of tiles after which the
+     *             worker exits without answering (used to test the recovery from dying workers)
+     * @throws IOException            if the connection to the coordinator fails
+     * @throws ClassNotFoundException if the camera received is of an unknown class
+     */
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        if (args.length < 2)
+            throw new IllegalArgumentException("Usage: RenderWorker host port [tiles limit]");
+        int tilesLimit = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+        try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+            ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            Camera camera = (Camera) in.readObject();
+            camera.setWorkerProcesses(0).setImageWriter(new ImageWriter("worker", in.readInt(), in.readInt()));
+            for (int tiles = 0; in.readBoolean(); ++tiles) {
+                int x0 = in.readInt(), y0 = in.readInt(), x1 = in.readInt(), y1 = in.readInt();
+                if (tiles == tilesLimit) return;
+                ImageWriter pixels = camera.renderCrop("tile", x0, y0, x1 - x0, y1 - y0);
+                for (int row = 0; row < y1 - y0; ++row)
+                    for (int col = 0; col < x1 - x0; ++col)
+                        out.writeInt(pixels.getPixel(col, row));
+                out.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package renderer;
+
+/**
+ * A rendered tile published while the image is rendered (see {@link Camera#setTilePublisher}).
+ * The pixels are copied from the image when the tile is finished, so they are not changed by later
+ * passes of the render.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class RenderedTile {
+    private final int x, y, width, height;
+    private final int[] pixels;
+
+    /**
+     * Copies the pixels of a finished tile from the image of the render
+     *
+     * @param target the render the tile belongs to
+     * @param tile   the finished tile
+     */
+    RenderedTile(RenderTarget target, Tile tile) {
+        this.x = tile.x0;
+        this.y = tile.y0;
+        this.width = tile.x1 - tile.x0;
+        this.height = tile.y1 - tile.y0;
+        this.pixels = new int[width * height];
+        int k = 0;
+        for (int row = tile.y0; row < tile.y1; ++row)
+            for (int col = tile.x0; col < tile.x1; ++col)
+                pixels[k++] = target.readPixel(col, row);
+    }
+
+    /**
+     * @return the view plane column of the left pixels of the tile
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * @return the view plane row of the top pixels of the tile
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * @return the amount of pixel columns of the tile
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the amount of pixel rows of the tile
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the pixels of the tile as packed RGB values (as {@link ImageWriter#getPixel(int, int)} returns them),
+     * row by row. The array is not copied, so it must not be changed by a subscriber which shares the tile
+     * with other subscribers
+     *
+     * @return the pixels
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    /**
+     * Returns a pixel of the tile
+     *
+     * @param col the column of the pixel in the tile
+     * @param row the row of the pixel in the tile
+     * @return the pixel as packed RGB value
+     */
+    public int getPixel(int col, int row) {
+        return pixels[row * width + col];
+    }
+}
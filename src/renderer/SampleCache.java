@@ -0,0 +1,59 @@
+package renderer;
+
+import primitives.Color;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SampleCache keeps the colors traced through the corners of the sub-pixels of the adaptive
+ * super-sampling. The corners are identified by their integer coordinates on a lattice dividing
+ * every pixel into equal cells, so a corner shared by neighbouring sub-pixels or neighbouring pixels
+ * is found without comparing points and is traced only once.<br/>
+ * A cache belongs to a single tile and is used by a single thread.
+ *
+ * @author ori shoshana and amir hay
+ */
+class SampleCache {
+    private final Map<Long, Color> samples = new HashMap<>();
+
+    /**
+     * Tracer of the color through a lattice point
+     */
+    @FunctionalInterface
+    interface LatticeTracer {
+        /**
+         * Traces the color through a lattice point
+         *
+         * @param x the lattice column
+         * @param y the lattice row
+         * @return the traced color
+         */
+        Color trace(int x, int y);
+    }
+
+    /**
+     * Returns the color through a lattice point, tracing it only if it was not traced before
+     *
+     * @param x      the lattice column
+     * @param y      the lattice row
+     * @param tracer the tracer of points which are not cached yet
+     * @return the color through the point
+     */
+    Color get(int x, int y, LatticeTracer tracer) {
+        long key = ((long) y << 32) | (x & 0xFFFFFFFFL);
+        Color color = samples.get(key);
+        if (color == null) {
+            color = tracer.trace(x, y);
+            samples.put(key, color);
+        }
+        return color;
+    }
+
+    /**
+     * @return the amount of points traced through the cache
+     */
+    int size() {
+        return samples.size();
+    }
+}
@@ -0,0 +1,94 @@
+package renderer;
+
+/**
+ * SampleStats summarizes the amount of samples (rays) traced per pixel in a render.
+ * It is used to tune the rendering cost against the image quality of the sampling modes
+ * whose amount of samples is not fixed.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class SampleStats {
+    private final int pixels;
+    private final long totalSamples;
+    private final int minSamples;
+    private final int maxSamples;
+
+    /**
+     * Constructs the statistics of a render
+     *
+     * @param pixels       the amount of pixels in the image
+     * @param totalSamples the amount of samples traced in the whole image
+     * @param minSamples   the smallest amount of samples of a pixel
+     * @param maxSamples   the largest amount of samples of a pixel
+     */
+    SampleStats(int pixels, long totalSamples, int minSamples, int maxSamples) {
+        this.pixels = pixels;
+        this.totalSamples = totalSamples;
+        this.minSamples = minSamples;
+        this.maxSamples = maxSamples;
+    }
+
+    /**
+     * @return the amount of pixels in the image
+     */
+    public int getPixels() {
+        return pixels;
+    }
+
+    /**
+     * @return the amount of samples traced in the whole image
+     */
+    public long getTotalSamples() {
+        return totalSamples;
+    }
+
+    /**
+     * @return the smallest amount of samples of a pixel
+     */
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    /**
+     * @return the largest amount of samples of a pixel
+     */
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+
+    /**
+     * @return the average amount of samples per pixel
+     */
+    public double getAverageSamples() {
+        return pixels == 0 ? 0 : (double) totalSamples / pixels;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SampleStats{pixels=%d, samples=%d, spp=%.2f (min %d, max %d)}",
+                pixels, totalSamples, getAverageSamples(), minSamples, maxSamples);
+    }
+
+    /**
+     * Summarizes the amounts of samples of the pixels of some tiles of an image
+     *
+     * @param samples the amount of samples of every pixel of the image, row by row
+     * @param nX      the amount of pixel columns of the image
+     * @param tiles   the tiles to summarize
+     * @return the sample statistics
+     */
+    static SampleStats of(int[] samples, int nX, Tile[] tiles) {
+        long total = 0;
+        int pixels = 0, min = Integer.MAX_VALUE, max = 0;
+        for (Tile tile : tiles)
+            for (int row = tile.y0; row < tile.y1; ++row)
+                for (int col = tile.x0; col < tile.x1; ++col) {
+                    int n = samples[row * nX + col];
+                    total += n;
+                    min = Math.min(min, n);
+                    max = Math.max(max, n);
+                    ++pixels;
+                }
+        return new SampleStats(pixels, total, pixels == 0 ? 0 : min, max);
+    }
+}
@@ -0,0 +1,51 @@
+package renderer;
+
+import java.io.Serializable;
+
+/**
+ * Sampler generates the positions of the samples (rays) inside a pixel.
+ * The positions are given in the unit square of the pixel - (0, 0) is its upper left corner
+ * and (1, 1) its lower right corner.<br/>
+ * A sampler is deterministic - the positions depend only on its seed, the pixel and the amount of samples,
+ * so an image is reproducible whatever the amount of rendering threads is.
+ * Samplers are serializable, so they can be sent to render worker processes.
+ *
+ * @author ori shoshana and amir hay
+ */
+public interface Sampler extends Serializable {
+    /**
+     * Generates the sample positions of a pixel
+     *
+     * @param x      the column of the pixel
+     * @param y      the row of the pixel
+     * @param count  the amount of samples
+     * @param points the array to fill - the k-th sample is (points[2k], points[2k+1]), each in [0, 1)
+     */
+    void sample(int x, int y, int count, double[] points);
+
+    /**
+     * Mixes a value into a seed (the SplitMix64 finalizer), so that close seeds and values give unrelated results
+     *
+     * @param seed  the seed
+     * @param value the value to mix in
+     * @return the mixed seed
+     */
+    static long mix(long seed, long value) {
+        long z = seed + 0x9E3779B97F4A7C15L * (value + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Derives the seed of a pixel from the seed of the image
+     *
+     * @param seed the seed of the image
+     * @param x    the column of the pixel
+     * @param y    the row of the pixel
+     * @return the seed of the pixel
+     */
+    static long pixelSeed(long seed, int x, int y) {
+        return mix(mix(seed, x), y);
+    }
+}
@@ -0,0 +1,20 @@
+package renderer;
+
+/**
+ * Listener of the intermediate images of a progressive render.
+ *
+ * @author ori shoshana and amir hay
+ */
+@FunctionalInterface
+public interface SnapshotListener {
+    /**
+     * Called by the rendering thread after every pass, when the image writer holds the image
+     * refined so far (e.g. to save it with {@link ImageWriter#writeToImage()} or to show it)
+     *
+     * @param pass            the number of the finished pass, starting from 1
+     * @param samplesPerPixel the amount of samples per pixel accumulated so far
+     *                        (rounded average when the pixels have different amounts)
+     * @param image           the image writer holding the current image
+     */
+    void snapshot(int pass, int samplesPerPixel, ImageWriter image);
+}
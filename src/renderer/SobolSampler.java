@@ -0,0 +1,58 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sobol sampler - the samples are the first points of the two dimensional Sobol sequence,
+ * so every power of two amount of samples covers the pixel like a (0, m, 2)-net - every elementary
+ * rectangle of the pixel holds exactly one sample. The bits of the points are XOR-ed with random
+ * bits in every pixel (a random digital shift), which keeps that property.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class SobolSampler implements Sampler {
+    private static final long serialVersionUID = 1L;
+
+    private static final double TO_UNIT = 0x1p-32;
+    private final long seed;
+
+    /**
+     * Constructs a Sobol sampler with seed 0
+     */
+    public SobolSampler() {
+        this(0);
+    }
+
+    /**
+     * Constructs a Sobol sampler
+     *
+     * @param seed the seed of the pixel scrambling
+     */
+    public SobolSampler(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void sample(int x, int y, int count, double[] points) {
+        SplittableRandom random = new SplittableRandom(Sampler.pixelSeed(seed, x, y));
+        int scrambleX = random.nextInt(), scrambleY = random.nextInt();
+        for (int k = 0; k < count; ++k) {
+            points[2 * k] = ((Integer.reverse(k) ^ scrambleX) & 0xFFFFFFFFL) * TO_UNIT;
+            points[2 * k + 1] = ((secondDimension(k) ^ scrambleY) & 0xFFFFFFFFL) * TO_UNIT;
+        }
+    }
+
+    /**
+     * Calculates the second coordinate of a Sobol point - its direction numbers are
+     * v(0) = 2^31 and v(i) = v(i-1) ^ (v(i-1) >>> 1)
+     *
+     * @param index the index of the point
+     * @return the coordinate as 32 fraction bits
+     */
+    static int secondDimension(int index) {
+        int result = 0;
+        for (int v = 1 << 31; index != 0; index >>>= 1, v ^= v >>> 1)
+            if ((index & 1) != 0) result ^= v;
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package renderer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Stratified (jittered) sampler - the pixel is divided into a grid of n x n equal strata,
+ * where n is the smallest integer with n * n not below the amount of samples, and every sample
+ * lies at a random position of a different stratum. When the amount of samples is not a square,
+ * the strata are chosen at random.
+ *
+ * @author ori shoshana and amir hay
+ */
+public class StratifiedSampler implements Sampler {
+    private static final long serialVersionUID = 1L;
+
+    private final long seed;
+
+    /**
+     * Constructs a stratified sampler with seed 0
+     */
+    public StratifiedSampler() {
+        this(0);
+    }
+
+    /**
+     * Constructs a stratified sampler
+     *
+     * @param seed the seed of the random positions
+     */
+    public StratifiedSampler(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void sample(int x, int y, int count, double[] points) {
+        SplittableRandom random = new SplittableRandom(Sampler.pixelSeed(seed, x, y));
+        int n = (int) Math.ceil(Math.sqrt(count));
+        int[] strata = new int[n * n];
+        for (int i = 0; i < strata.length; ++i) strata[i] = i;
+        // Partial Fisher-Yates shuffle - only the first count strata are used
+        for (int i = 0; i < count; ++i) {
+            int j = i + random.nextInt(strata.length - i);
+            int tmp = strata[i];
+            strata[i] = strata[j];
+            strata[j] = tmp;
+        }
+        for (int k = 0; k < count; ++k) {
+            points[2 * k] = (strata[k] % n + random.nextDouble()) / n;
+            points[2 * k + 1] = (strata[k] / n + random.nextDouble()) / n;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package renderer;
+
+import java.io.Serializable;
+
+/**
+ * A rectangle of pixels - columns [x0, x1) and rows [y0, y1).
+ * The image is rendered tile by tile, every tile by a single thread.
+ * The regions of interest of a partial render are kept as rectangles as well.
+ *
+ * @author ori shoshana and amir hay
+ */
+class Tile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    final int x0, y0, x1, y1;
+
+    /**
+     * Constructs a tile from its bounds
+     *
+     * @param x0 first column (included)
+     * @param y0 first row (included)
+     * @param x1 last column (excluded)
+     * @param y1 last row (excluded)
+     */
+    Tile(int x0, int y0, int x1, int y1) {
+        this.x0 = x0;
+        this.y0 = y0;
+        this.x1 = x1;
+        this.y1 = y1;
+    }
+
+    /**
+     * @return the amount of pixels in the tile
+     */
+    int size() {
+        return (x1 - x0) * (y1 - y0);
+    }
+
+    /**
+     * Splits an image into tiles, row by row
+     *
+     * @param nX       the amount of pixel columns
+     * @param nY       the amount of pixel rows
+     * @param tileSize the width and height of a tile in pixels
+     * @return the tiles covering the image
+     */
+    static Tile[] split(int nX, int nY, int tileSize) {
+        return new Tile(0, 0, nX, nY).split(tileSize);
+    }
+
+    /**
+     * Splits this rectangle into tiles, row by row
+     *
+     * @param tileSize the width and height of a tile in pixels
+     * @return the tiles covering the rectangle
+     */
+    Tile[] split(int tileSize) {
+        if (tileSize < 1) throw new IllegalArgumentException("Tile size must be positive");
+        int cols = (x1 - x0 + tileSize - 1) / tileSize;
+        int rows = (y1 - y0 + tileSize - 1) / tileSize;
+        Tile[] tiles = new Tile[Math.max(0, cols * rows)];
+        int i = 0;
+        for (int y = y0; y < y1; y += tileSize)
+            for (int x = x0; x < x1; x += tileSize)
+                tiles[i++] = new Tile(x, y, Math.min(x + tileSize, x1), Math.min(y + tileSize, y1));
+        return tiles;
+    }
+
+    /**
+     * Checks whether this rectangle and another one share pixels
+     *
+     * @param other the other rectangle
+     * @return true if the rectangles overlap
+     */
+    boolean overlaps(Tile other) {
+        return x0 < other.x1 && other.x0 < x1 && y0 < other.y1 && other.y0 < y1;
+    }
+}
@@ -0,0 +1,100 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing AABB
+ * @author ori shoshana and amir hay
+ */
+class AABBTests {
+
+    /**
+     * Test method for {@link geometries.AABB#intersects(Ray, double)}.
+     */
+    @Test
+    void testIntersects() {
+        AABB box = new AABB(new Point(-1, -1, -1), new Point(1, 1, 1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray starts outside and passes through the box
+        assertTrue(box.intersects(new Ray(new Point(-5, 0, 0), new Vector(1, 0.1, 0)), Double.POSITIVE_INFINITY),
+                "Ray through the box");
+
+        // TC02: Ray misses the box
+        assertFalse(box.intersects(new Ray(new Point(-5, 3, 0), new Vector(1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray beside the box");
+
+        // TC03: Ray points away from the box
+        assertFalse(box.intersects(new Ray(new Point(-5, 0, 0), new Vector(-1, 0, 0)), Double.POSITIVE_INFINITY),
+                "Ray pointing away from the box");
+
+        // TC04: Ray starts inside the box
+        assertEquals(0, box.entryDistance(new Ray(new Point(0, 0, 0), new Vector(1, 1, 1)), 10), 0.000001,
+                "Ray inside the box");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Box is farther than the max distance
+        assertFalse(box.intersects(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 3), "Box beyond max distance");
+
+        // TC12: Entry distance
+        assertEquals(4, box.entryDistance(new Ray(new Point(-5, 0, 0), new Vector(1, 0, 0)), 10), 0.000001,
+                "Wrong entry distance");
+
+        // TC13: Flat box hit by a ray perpendicular to it
+        AABB flat = new AABB(new Point(0, 0, -2), new Point(1, 1, -2));
+        assertTrue(flat.intersects(new Ray(new Point(0.5, 0.5, 0), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY),
+                "Ray through a flat box");
+    }
+
+    /**
+     * Test method for {@link geometries.AABB#union(AABB)}.
+     */
+    @Test
+    void testUnion() {
+        AABB box = new AABB(0, 0, 0, 1, 1, 1).union(new AABB(2, -1, 0, 3, 0, 1));
+        assertEquals(new Point(0, -1, 0), box.getMin(), "Wrong lower corner");
+        assertEquals(new Point(3, 1, 1), box.getMax(), "Wrong upper corner");
+        assertEquals(2 * (3 * 2 + 2 * 1 + 1 * 3), box.surfaceArea(), 0.000001, "Wrong surface area");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Sphere box
+        AABB sphereBox = new Sphere(2, new Point(1, 2, 3)).getBoundingBox();
+        assertEquals(new Point(-1, 0, 1), sphereBox.getMin(), "Wrong sphere box");
+        assertEquals(new Point(3, 4, 5), sphereBox.getMax(), "Wrong sphere box");
+
+        // TC02: Triangle box
+        AABB triangleBox = new Triangle(new Point(0, 0, 1), new Point(2, 0, 1), new Point(0, 3, 1)).getBoundingBox();
+        assertEquals(new Point(0, 0, 1), triangleBox.getMin(), "Wrong triangle box");
+        assertEquals(new Point(2, 3, 1), triangleBox.getMax(), "Wrong triangle box");
+
+        // TC03: Cylinder box is tight around both bases
+        AABB cylinderBox = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 5).getBoundingBox();
+        assertEquals(new Point(-1, -1, 0), cylinderBox.getMin(), "Wrong cylinder box");
+        assertEquals(new Point(1, 1, 5), cylinderBox.getMax(), "Wrong cylinder box");
+
+        // TC04: Plane and tube are unbounded
+        assertFalse(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)).getBoundingBox().isBounded(), "Plane is unbounded");
+        assertFalse(new Tube(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))).getBoundingBox().isBounded(),
+                "Tube is unbounded");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Nested geometries box is the union of the shapes
+        Geometries geometries = new Geometries(new Sphere(1, new Point(0, 0, 0)), new Sphere(1, new Point(5, 0, 0)));
+        assertEquals(new Point(6, 1, 1), geometries.getBoundingBox().getMax(), "Wrong geometries box");
+
+        // TC12: Geometries with an unbounded shape is unbounded
+        geometries.add(new Plane(new Point(0, 0, 0), new Vector(0, 0, 1)));
+        assertFalse(geometries.getBoundingBox().isBounded(), "Geometries with a plane is unbounded");
+    }
+}
@@ -5,7 +5,9 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Testing Cylinder
@@ -46,9 +48,59 @@ class CylinderTests {
     }
 
     /**
-     * Test method for {@link geometries.Sphere#findIntersections(Ray)}.
+     * Test method for {@link geometries.Cylinder#findIntersections(Ray)}.
      */
     @Test
     void testFindIntersections() {
+        Cylinder cyl = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the side twice
+        Ray ray = new Ray(new Point(-2, 0, 1), new Vector(1, 0, 0));
+        assertEquals(List.of(new Point(-1, 0, 1), new Point(1, 0, 1)), cyl.findIntersections(ray), "Wrong side points");
+        // TC02: Ray crosses both bases
+        assertEquals(List.of(new Point(0.5, 0, 0), new Point(0.5, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(0.5, 0, -1), new Vector(0, 0, 1))), "Wrong base points");
+        // TC03: Ray enters through the side and leaves through a base
+        assertEquals(List.of(new Point(-1, 0, 1.5), new Point(-0.5, 0, 2)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 0.5), new Vector(1, 0, 1))), "Wrong side and base points");
+        // TC04: Ray passes above the cylinder, through its infinite tube
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, 0))), "Ray above the cylinder");
+        // TC05: Ray starts inside (1 point)
+        assertEquals(List.of(new Point(0, 0, 2)), cyl.findIntersections(new Ray(new Point(0, 0, 1), new Vector(0, 0, 1))),
+                "Wrong point from inside");
+        // TC06: the closest point
+        assertEquals(1, cyl.findClosestGeoIntersection(ray).t, 1e-12, "Wrong closest point");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray parallel to the axis, outside the cylinder
+        assertNull(cyl.findIntersections(new Ray(new Point(2, 0, -1), new Vector(0, 0, 1))), "Parallel ray hits");
+        // TC11: Ray in a base plane
+        assertNull(cyl.findIntersections(new Ray(new Point(-2, 0, 2), new Vector(1, 0, 0))), "Ray in a base plane hits");
+        // TC12: Ray through the rim of a base
+        assertEquals(List.of(new Point(-1, 0, 2), new Point(1, 0, 0)),
+                cyl.findIntersections(new Ray(new Point(-2, 0, 3), new Vector(1, 0, -1))), "Wrong rim points");
+        // TC13: the distance limit between the points
+        assertEquals(1, cyl.findGeoIntersections(ray, 1.5).size(), "Distance limit ignored");
+        assertNull(cyl.findGeoIntersections(ray, 0.5), "Distance limit ignored");
+    }
+
+    /**
+     * Test method for {@link geometries.Cylinder#getBoundingBox()}.
+     */
+    @Test
+    void testGetBoundingBox() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the box of an oblique cylinder is bounded by its base disks
+        Cylinder cyl = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(1, 1, 0)), Math.sqrt(2));
+        double r = Math.sqrt(0.5);
+        assertEquals(new Point(-r, -r, -1), cyl.getBoundingBox().getMin(), "Wrong lower corner");
+        assertEquals(new Point(1 + r, 1 + r, 1), cyl.getBoundingBox().getMax(), "Wrong upper corner");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a cylinder along an axis
+        Cylinder straight = new Cylinder(1, new Ray(new Point(0, 0, 0), new Vector(0, 0, 1)), 2);
+        assertEquals(new Point(-1, -1, 0), straight.getBoundingBox().getMin(), "Wrong lower corner");
+        assertEquals(new Point(1, 1, 2), straight.getBoundingBox().getMax(), "Wrong upper corner");
     }
 }
\ No newline at end of file
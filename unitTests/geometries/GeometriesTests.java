@@ -1,6 +1,8 @@
 package geometries;
 
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -55,4 +57,140 @@ class GeometriesTests {
         assertEquals(1, res4.size(), "Only one shape is cut");
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Geometries#setBVH(boolean)}.
+     * The hierarchy must find exactly the same intersections as the flat list.
+     */
+    @Test
+    void testBVH() {
+        Geometries flat = new Geometries();
+        Geometries bvh = new Geometries().setBVH(true);
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 10; ++j) {
+                Sphere sphere = new Sphere(0.4, new Point(i, j, -5));
+                Triangle triangle = new Triangle(new Point(i, j, -10), new Point(i + 1, j, -10), new Point(i, j + 1, -10));
+                flat.add(sphere, triangle);
+                bvh.add(sphere, triangle);
+            }
+        Plane plane = new Plane(new Point(0, 0, -20), new Vector(0, 0, 1));
+        flat.add(plane);
+        bvh.add(plane);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray through a sphere, a triangle and the plane
+        Ray r1 = new Ray(new Point(3, 4, 0), new Vector(0.01, 0.02, -1));
+        assertEquals(flat.findIntersections(r1).size(), bvh.findIntersections(r1).size(), "BVH missed intersections");
+        assertEquals(4, bvh.findIntersections(r1).size(), "Wrong number of points");
+
+        // TC02: Ray missing all the bounded shapes hits only the unbounded plane
+        Ray r2 = new Ray(new Point(50, 50, 0), new Vector(0, 0, -1));
+        assertEquals(1, bvh.findIntersections(r2).size(), "Only the plane is cut");
+
+        // TC03: Ray missing everything
+        Ray r3 = new Ray(new Point(50, 50, 0), new Vector(0, 0, 1));
+        assertNull(bvh.findIntersections(r3), "No shape is cut");
+
+        // =============== Boundary Values Tests ==================
+        // TC11: Shapes added after the hierarchy was built are found too
+        Sphere late = new Sphere(1, new Point(50, 50, -5));
+        bvh.add(late);
+        assertEquals(3, bvh.findIntersections(r2).size(), "Hierarchy was not rebuilt after adding a shape");
+
+        // TC12: Empty collection
+        assertNull(new Geometries().setBVH(true).findIntersections(r1), "There are no shapes");
+
+        // TC13: Shapes added to a nested collection after its parents were queried are found too
+        for (boolean hierarchy : new boolean[]{false, true}) {
+            Geometries inner = new Geometries(new Sphere(1, new Point(0, 0, -5))).setBVH(hierarchy);
+            Geometries outer = new Geometries(inner, new Sphere(1, new Point(-10, 0, -5))).setBVH(hierarchy);
+            Geometries top = new Geometries(outer).setBVH(hierarchy);
+            Ray ray = new Ray(new Point(10, 0, 0), new Vector(0, 0, -1));
+            assertNull(top.findIntersections(ray), "No shape is cut yet");
+            inner.add(new Sphere(1, new Point(10, 0, -5)));
+            assertEquals(2, inner.findIntersections(ray).size(), "Wrong number of points of the nested collection");
+            assertEquals(2, outer.findIntersections(ray).size(), "Stale box of the parent collection");
+            assertEquals(2, top.findIntersections(ray).size(), "Stale box of the grandparent collection");
+            assertEquals(4, top.findClosestGeoIntersection(ray).t, 1e-10, "Stale closest hit of the parent collection");
+        }
+        // TC14: An addition to an unrelated collection keeps the box and the hierarchy of another
+        Geometries scene = new Geometries(new Geometries(new Sphere(1, new Point(0, 0, -5))),
+                new Sphere(1, new Point(-10, 0, -5))).setBVH(true);
+        BVHNode hierarchy = scene.getHierarchy();
+        AABB box = scene.getBoundingBox();
+        new Geometries(new Geometries()).add(new Sphere(1, new Point(10, 0, -5)));
+        assertSame(hierarchy, scene.getHierarchy(), "Hierarchy rebuilt by an unrelated addition");
+        assertSame(box, scene.getBoundingBox(), "Box recalculated by an unrelated addition");
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findClosestGeoIntersection(Ray)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Sphere near = new Sphere(1, new Point(0, 0, -5));
+        Sphere far = new Sphere(1, new Point(0, 0, -10));
+        Triangle triangle = new Triangle(new Point(-2, -2, -20), new Point(2, -2, -20), new Point(0, 2, -20));
+        Plane plane = new Plane(new Point(0, 0, -30), new Vector(0, 0, 1));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+
+        for (boolean bvh : new boolean[]{false, true}) {
+            Geometries geometries = new Geometries(plane, far, triangle, near).setBVH(bvh);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: The nearest point of the nearest shape is found with its distance
+            Intersectable.GeoPoint closest = geometries.findClosestGeoIntersection(ray);
+            assertEquals(near, closest.geometry, "Wrong closest geometry");
+            assertEquals(new Point(0, 0, -4), closest.point, "Wrong closest point");
+            assertEquals(4, closest.t, 0.000001, "Wrong closest distance");
+
+            // TC02: Ray misses all the shapes
+            assertNull(geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, 0), new Vector(0, 0, 1))),
+                    "There are no intersections");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: Ray starts inside the nearest sphere
+            closest = geometries.findClosestGeoIntersection(new Ray(new Point(0, 0, -5), new Vector(0, 0, -1)));
+            assertEquals(1, closest.t, 0.000001, "Wrong closest distance from inside a sphere");
+
+            // TC12: The closest shape is beyond the max distance
+            assertNull(geometries.findClosestGeoIntersection(ray, 3.5), "Shapes beyond the max distance");
+
+            // TC13: Only the unbounded plane is within the ray's reach
+            closest = geometries.findClosestGeoIntersection(new Ray(new Point(10, 10, 0), new Vector(0, 0, -1)));
+            assertEquals(plane, closest.geometry, "Only the plane is cut");
+        }
+    }
+
+    /**
+     * Test method for {@link geometries.Intersectable#findTransparency(Ray, double, Double3, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Sphere glass = (Sphere) new Sphere(1, new Point(0, 0, -5)).setMaterial(new Material().setkT(0.5));
+        Sphere opaque = new Sphere(1, new Point(0, 0, -10));
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+
+        for (boolean bvh : new boolean[]{false, true}) {
+            Geometries geometries = new Geometries(glass, opaque).setBVH(bvh);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: Light behind a transparent sphere only - both of its points reduce the light
+            assertEquals(new Double3(0.25), geometries.findTransparency(ray, 7, Double3.ONE, 0.001),
+                    "Wrong transparency through a transparent sphere");
+
+            // TC02: Opaque sphere blocks the light
+            assertEquals(Double3.ZERO, geometries.findTransparency(ray, 20, Double3.ONE, 0.001),
+                    "Opaque sphere must block the light");
+
+            // TC03: Nothing between the point and the light
+            assertEquals(Double3.ONE, geometries.findTransparency(ray, 3, Double3.ONE, 0.001),
+                    "Nothing blocks the light");
+
+            // =============== Boundary Values Tests ==================
+            // TC11: Transparency drops below the threshold
+            assertEquals(Double3.ZERO, geometries.findTransparency(ray, 7, Double3.ONE, 0.3),
+                    "Transparency below the threshold blocks the light");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing MeshLoader
+ *
+ * @author ori shoshana and amir hay
+ */
+class MeshLoaderTests {
+    /** A unit cube with quad sides, texture and normal indices, comments and relative indices */
+    private static final String CUBE = """
+            # a unit cube
+            o cube
+            v 0 0 0
+            v 1.0 0 0
+            v 1 1 0
+            v 0 1 0
+            vt 0 0
+            vn 0 0 -1
+            f 1/1/1 2/1/1 3/1/1 4/1/1
+            v 0 0 1
+            v 1 0 1 1.0
+            v 1 1 1
+            v 0 1 1
+            f -4 -3 -2 -1 # top
+            f 1//1 2//1 6//1 5//1
+            f 4 3 7 8
+            f 1 4 8 5
+            f 2 3 7 6
+            """;
+
+    /**
+     * Writes a temporary file
+     *
+     * @param suffix  the file name suffix
+     * @param content the content
+     * @return the file
+     * @throws IOException if the file cannot be written
+     */
+    private static Path write(String suffix, byte[] content) throws IOException {
+        Path file = Files.createTempFile("mesh", suffix);
+        file.toFile().deleteOnExit();
+        return Files.write(file, content);
+    }
+
+    /**
+     * Asserts that a mesh is the unit cube - a ray through it hits two sides
+     *
+     * @param cube the mesh
+     */
+    private static void assertCube(Mesh cube) {
+        assertEquals(12, cube.getTrianglesCount(), "Wrong number of triangles");
+        assertEquals(8, cube.getVerticesCount(), "Wrong number of vertices");
+        Ray ray = new Ray(new Point(0.3, 0.3, -1), new Vector(0, 0.1, 1));
+        assertEquals(2, cube.findGeoIntersections(ray).size(), "Wrong number of points");
+        assertEquals(new Point(0.3, 0.4, 0), cube.findClosestGeoIntersection(ray).point, "Wrong closest point");
+        assertEquals(2, cube.findGeoIntersections(new Ray(new Point(2, 0.3, 0.6), new Vector(-1, 0, 0))).size(),
+                "Wrong number of side points");
+    }
+
+    /**
+     * Test method for {@link geometries.MeshLoader#loadObj(Path, boolean)}.
+     */
+    @Test
+    void testLoadObj() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: quads, texture and normal indices, relative indices and comments
+        Path cube = write(".obj", CUBE.getBytes(StandardCharsets.US_ASCII));
+        assertCube(MeshLoader.loadObj(cube, false));
+        // TC02: loading by the file extension
+        assertCube(MeshLoader.load(cube));
+        // TC03: number formats, converted as Double.parseDouble converts them
+        Path numbers = write(".obj", """
+                v -1.5e0 +2 0.1
+                v 3E-1 .5 -0.000000000000000000123456789012345678901e19
+                v 1234567890.12345678 7. 1e-300
+                f 1 2 3
+                """.getBytes(StandardCharsets.US_ASCII));
+        Mesh triangle = MeshLoader.loadObj(numbers, false);
+        Triangle expected = new Triangle(new Point(-1.5, 2, 0.1),
+                new Point(0.3, 0.5, -0.000000000000000000123456789012345678901e19),
+                new Point(1234567890.12345678, 7, 1e-300));
+        assertEquals(expected.getNormal(new Point(-1.5, 2, 0.1)), triangle.getNormal(new Point(-1.5, 2, 0.1)),
+                "Wrong vertices");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: CRLF line ends
+        assertCube(MeshLoader.loadObj(write(".obj", CUBE.replace("\n", "\r\n").getBytes(StandardCharsets.US_ASCII)),
+                false));
+        // TC11: chunks of a few bytes, parsed in parallel, with relative indices to vertices of former chunks
+        for (long chunk : new long[]{1, 7, 40, 1 << 20})
+            assertCube(MeshLoader.loadObj(cube, true, chunk));
+        // TC12: malformed faces and numbers
+        assertThrows(IllegalArgumentException.class,
+                () -> MeshLoader.loadObj(write(".obj", "v 0 0 0\nv 1 0 0\nf 1 2\n".getBytes()), false),
+                "Face of two vertices accepted");
+        assertThrows(IllegalArgumentException.class,
+                () -> MeshLoader.loadObj(write(".obj", "v 0 x 0\n".getBytes()), false), "Bad number accepted");
+        assertThrows(IllegalArgumentException.class,
+                () -> MeshLoader.loadObj(write(".obj", "v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 4\n".getBytes()), false),
+                "Missing vertex accepted");
+        assertThrows(IllegalArgumentException.class, () -> MeshLoader.load(write(".stl", new byte[0])),
+                "Unknown file type accepted");
+    }
+
+    /**
+     * Test method for {@link geometries.MeshLoader#loadObj(Path, boolean)} on a large file.
+     */
+    @Test
+    void testLoadLargeObj() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a large grid parsed in parallel chunks is the same as the grid built in memory
+        int n = 60;
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i <= n; ++i)
+            for (int j = 0; j <= n; ++j)
+                text.append("v ").append(j).append(' ').append(i).append(' ')
+                        .append(Math.sin(i * 0.7) * Math.cos(j * 0.4)).append('\n');
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j) {
+                int a = i * (n + 1) + j + 1, b = a + 1, c = a + n + 1, d = c + 1;
+                text.append("f ").append(a).append(' ').append(b).append(' ').append(d).append('\n');
+                text.append("f ").append(a).append(' ').append(d).append(' ').append(c).append('\n');
+            }
+        Mesh loaded = MeshLoader.loadObj(write(".obj", text.toString().getBytes(StandardCharsets.US_ASCII)), true, 4096);
+        Mesh grid = MeshTests.grid(n);
+        assertEquals(grid.getTrianglesCount(), loaded.getTrianglesCount(), "Wrong number of triangles");
+        SplittableRandom random = new SplittableRandom(11);
+        for (int k = 0; k < 200; ++k) {
+            Ray ray = new Ray(new Point(random.nextDouble(-5, 65), random.nextDouble(-5, 65), 3),
+                    new Vector(random.nextDouble(-1, 1), random.nextDouble(-1, 1), -1));
+            Intersectable.GeoPoint expected = grid.findClosestGeoIntersection(ray);
+            Intersectable.GeoPoint actual = loaded.findClosestGeoIntersection(ray);
+            if (expected == null) assertNull(actual, "Hit of a missing triangle");
+            else assertEquals(expected.t, actual.t, 1e-12, "Wrong closest hit");
+        }
+    }
+
+    /**
+     * Builds a binary PLY cube with quad faces, an extra vertex property and an extra element
+     *
+     * @param order the byte order
+     * @return the file content
+     */
+    private static byte[] plyCube(ByteOrder order) {
+        String header = "ply\nformat binary_" + (order == ByteOrder.LITTLE_ENDIAN ? "little" : "big") + "_endian 1.0\n"
+                + "comment a unit cube\n"
+                + "element vertex 8\nproperty float x\nproperty float y\nproperty double z\nproperty uchar red\n"
+                + "element face 6\nproperty list uchar int vertex_indices\nproperty list uchar float texcoord\n"
+                + "element edge 1\nproperty int vertex1\nproperty int vertex2\n"
+                + "end_header\n";
+        ByteBuffer body = ByteBuffer.allocate(1000).order(order);
+        int[][] points = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}, {0, 0, 1}, {1, 0, 1}, {1, 1, 1}, {0, 1, 1}};
+        for (int[] p : points)
+            body.putFloat(p[0]).putFloat(p[1]).putDouble(p[2]).put((byte) 200);
+        int[][] faces = {{0, 1, 2, 3}, {4, 5, 6, 7}, {0, 1, 5, 4}, {3, 2, 6, 7}, {0, 3, 7, 4}, {1, 2, 6, 5}};
+        for (int[] face : faces) {
+            body.put((byte) face.length);
+            for (int index : face) body.putInt(index);
+            body.put((byte) 2).putFloat(0.5f).putFloat(0.5f);
+        }
+        body.putInt(0).putInt(1);
+        byte[] content = new byte[header.length() + body.position()];
+        System.arraycopy(header.getBytes(StandardCharsets.US_ASCII), 0, content, 0, header.length());
+        body.flip().get(content, header.length(), content.length - header.length());
+        return content;
+    }
+
+    /**
+     * Test method for {@link geometries.MeshLoader#loadPly(Path)}.
+     */
+    @Test
+    void testLoadPly() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: little endian, with skipped properties and elements
+        assertCube(MeshLoader.loadPly(write(".ply", plyCube(ByteOrder.LITTLE_ENDIAN))));
+        // TC02: big endian, by the file extension
+        assertCube(MeshLoader.load(write(".ply", plyCube(ByteOrder.BIG_ENDIAN))));
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a truncated file
+        byte[] cube = plyCube(ByteOrder.LITTLE_ENDIAN);
+        byte[] truncated = Arrays.copyOf(cube, cube.length - 20);
+        assertThrows(IllegalArgumentException.class, () -> MeshLoader.loadPly(write(".ply", truncated)),
+                "Truncated file accepted");
+        // TC11: an ASCII PLY file
+        assertThrows(IllegalArgumentException.class, () -> MeshLoader.loadPly(write(".ply",
+                        "ply\nformat ascii 1.0\nelement vertex 0\nend_header\n".getBytes())),
+                "ASCII file accepted");
+        // TC12: not a PLY file
+        assertThrows(IllegalArgumentException.class, () -> MeshLoader.loadPly(write(".ply", CUBE.getBytes())),
+                "OBJ file accepted");
+    }
+}
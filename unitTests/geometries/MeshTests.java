@@ -0,0 +1,152 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static geometries.Intersectable.GeoPoint;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing Mesh
+ *
+ * @author ori shoshana and amir hay
+ */
+class MeshTests {
+
+    /**
+     * A wavy height field over the square [0, n] x [0, n] at z around 0, two triangles per grid cell
+     *
+     * @param n the amount of cells along each side
+     * @return the mesh
+     */
+    static Mesh grid(int n) {
+        double[] vertices = new double[3 * (n + 1) * (n + 1)];
+        for (int i = 0; i <= n; ++i)
+            for (int j = 0; j <= n; ++j) {
+                int v = 3 * (i * (n + 1) + j);
+                vertices[v] = j;
+                vertices[v + 1] = i;
+                vertices[v + 2] = Math.sin(i * 0.7) * Math.cos(j * 0.4);
+            }
+        int[] indices = new int[6 * n * n];
+        int k = 0;
+        for (int i = 0; i < n; ++i)
+            for (int j = 0; j < n; ++j) {
+                int a = i * (n + 1) + j, b = a + 1, c = a + n + 1, d = c + 1;
+                indices[k++] = a;
+                indices[k++] = b;
+                indices[k++] = d;
+                indices[k++] = a;
+                indices[k++] = d;
+                indices[k++] = c;
+            }
+        return new Mesh(vertices, indices);
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        Mesh mesh = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 1}, new int[]{0, 1, 2, 0, 1, 3});
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point on the first triangle - the normal follows the order of the vertices as in Triangle
+        assertEquals(new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(0, 1, 0)).getNormal(new Point(0.2, 0.2, 0)),
+                mesh.getNormal(new Point(0.2, 0.2, 0)), "Wrong normal of the first triangle");
+        // TC02: a point on the second triangle
+        assertEquals(new Vector(0, -1, 0), mesh.getNormal(new Point(0.2, 0, 0.2)), "Wrong normal of the second triangle");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a point off the mesh
+        assertThrows(IllegalArgumentException.class, () -> mesh.getNormal(new Point(5, 5, 5)), "Point off the mesh accepted");
+    }
+
+    /**
+     * Test method for {@link geometries.Mesh#findGeoIntersections(Ray)}.
+     */
+    @Test
+    void testFindIntersections() {
+        // a unit cube, two triangles per side
+        Mesh cube = new Mesh(new double[]{0, 0, 0, 1, 0, 0, 1, 1, 0, 0, 1, 0, 0, 0, 1, 1, 0, 1, 1, 1, 1, 0, 1, 1},
+                new int[]{0, 1, 2, 0, 2, 3, 4, 5, 6, 4, 6, 7, 0, 1, 5, 0, 5, 4,
+                        3, 2, 6, 3, 6, 7, 0, 3, 7, 0, 7, 4, 1, 2, 6, 1, 6, 5});
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a ray through the cube hits two sides, the closest is the near side with its face normal
+        Ray ray = new Ray(new Point(0.3, 0.4, -1), new Vector(0, 0, 1));
+        assertEquals(2, cube.findGeoIntersections(ray).size(), "Wrong number of points");
+        GeoPoint closest = cube.findClosestGeoIntersection(ray);
+        assertEquals(new Point(0.3, 0.4, 0), closest.point, "Wrong closest point");
+        assertEquals(1, closest.t, 1e-12, "Wrong ray parameter");
+        assertEquals(0, Math.abs(closest.geometry.getNormal(closest.point).getZ()) - 1, 1e-12, "Wrong face normal");
+        // TC02: a ray missing the cube
+        assertNull(cube.findGeoIntersections(new Ray(new Point(2, 2, -1), new Vector(0, 0, 1))), "Ray misses the cube");
+        // TC03: a single triangle mesh gives the point of the same triangle
+        Mesh single = new Mesh(new double[]{3, 0, 0, 0, 3, 0, 0, 0, 4}, new int[]{0, 1, 2});
+        Ray through = new Ray(new Point(1, 0, 0), new Vector(0.12, 0.95, 1.25));
+        assertEquals(new Triangle(new Point(3, 0, 0), new Point(0, 3, 0), new Point(0, 0, 4)).findIntersections(through).get(0)
+                .distance(single.findIntersections(through).get(0)), 0, 1e-9, "Wrong point of a single triangle");
+        // TC04: the closest hit of a large mesh is the closest hit of all its faces
+        Mesh mesh = grid(60);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int k = 0; k < 300; ++k) {
+            Ray r = new Ray(new Point(random.nextDouble(-5, 65), random.nextDouble(-5, 65), 3),
+                    new Vector(random.nextDouble(-1, 1), random.nextDouble(-1, 1), -1));
+            List<GeoPoint> all = mesh.findGeoIntersections(r);
+            GeoPoint hit = mesh.findClosestGeoIntersection(r);
+            if (all == null) {
+                assertNull(hit, "Closest hit without intersections");
+                continue;
+            }
+            double min = Double.POSITIVE_INFINITY;
+            for (GeoPoint gp : all) min = Math.min(min, gp.t);
+            assertEquals(min, hit.t, 1e-9, "Wrong closest hit");
+        }
+        // TC05: the material and the emission of a face are the ones of its mesh, and setting them sets the mesh
+        Mesh.Face face = (Mesh.Face) closest.geometry;
+        Material material = new Material().setkD(0.4);
+        Color emission = new Color(10, 20, 30);
+        assertSame(face, face.setMaterial(material).setEmission(emission), "Setters must return the face");
+        assertSame(material, cube.getMaterial(), "Wrong mesh material");
+        assertSame(emission, cube.getEmission(), "Wrong mesh emission");
+        assertSame(material, cube.findClosestGeoIntersection(ray).geometry.getMaterial(), "Wrong face material");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a ray through edges shared by two triangles (the diagonals of the near and far sides) misses the mesh,
+        // as it misses the triangles
+        Ray edge = new Ray(new Point(0.5, 0.5, -1), new Vector(0, 0, 1));
+        assertNull(new Triangle(new Point(0, 0, 0), new Point(1, 0, 0), new Point(1, 1, 0)).findIntersections(edge),
+                "Ray through an edge hits the triangle");
+        assertNull(cube.findGeoIntersections(edge), "Ray through shared edges hits the cube");
+        assertNull(cube.findClosestGeoIntersection(edge), "Ray through shared edges hits the cube");
+        // TC11: a ray parallel to the triangles
+        assertNull(single.findGeoIntersections(new Ray(new Point(10, 0, 0), new Vector(-3, 3, 0))), "Parallel ray hits");
+        // TC12: the distance limit cuts the farther side
+        assertEquals(1, cube.findGeoIntersections(ray, 1.5).size(), "Distance limit ignored");
+        // TC13: a tiny triangle is hit inside by an oblique ray and missed on its edge, as the same triangle
+        Mesh tinyMesh = new Mesh(new double[]{0, 0, -1, 1e-6, 0, -1, 0, 1e-6, -1}, new int[]{0, 1, 2});
+        Triangle tinyTriangle = new Triangle(new Point(0, 0, -1), new Point(1e-6, 0, -1), new Point(0, 1e-6, -1));
+        Vector oblique = new Vector(Math.sqrt(3), 0, -1);
+        Ray inside = new Ray(new Point(2e-7 - Math.sqrt(3), 3e-7, 0), oblique);
+        assertEquals(1, tinyTriangle.findIntersections(inside).size(), "Ray misses the tiny triangle");
+        assertEquals(1, tinyMesh.findIntersections(inside).size(), "Ray misses the tiny mesh");
+        Ray onEdge = new Ray(new Point(5e-7 - Math.sqrt(3), 0, 0), oblique);
+        assertNull(tinyTriangle.findIntersections(onEdge), "Ray through an edge hits the tiny triangle");
+        assertNull(tinyMesh.findIntersections(onEdge), "Ray through an edge hits the tiny mesh");
+        // TC14: invalid buffers
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "Broken vertex buffer accepted");
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0}, new int[]{0, 0, 1}),
+                "Index out of range accepted");
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0}, new int[0]),
+                "Mesh without triangles accepted");
+    }
+}
@@ -124,5 +124,49 @@ public class PolygonTests {
         assertNull(p.findIntersections(r6),
                 "findIntersections() Ray intersect on edge's continuation wrong result");
 
+        //TC14: Ray from the back side of the polygon
+        assertEquals(List.of(new Point(0.5, 0.5, 0)), p.findIntersections(new Ray(new Point(0.5, 0.5, 1), new Vector(0, 0, -1))),
+                "findIntersections() back side ray wrong result");
+
+        //TC15: the intersection point belongs to the polygon, not to its plane
+        assertSame(p, p.findGeoIntersections(r1).get(0).geometry, "Wrong geometry of the point");
+        assertSame(p, p.findClosestGeoIntersection(r1).geometry, "Wrong geometry of the closest point");
+
+        //TC16: the distance limit before and after the point
+        assertNull(p.findGeoIntersections(r1, 0.999), "Point beyond the distance limit");
+        assertEquals(1, p.findClosestGeoIntersection(r1, 1.001).t, 1e-12, "Wrong ray parameter");
+
+        //TC17: tilted pentagons projected on every axis plane, in both orders of the vertices
+        double[][] pentagon = {{0, 0}, {2, 0}, {3, 1}, {1, 2}, {-1, 1}};
+        for (int axis = 0; axis < 3; ++axis)
+            for (boolean reversed : new boolean[]{false, true}) {
+                Point[] vertices = new Point[pentagon.length];
+                for (int i = 0; i < pentagon.length; ++i) {
+                    double[] q = pentagon[reversed ? pentagon.length - 1 - i : i];
+                    vertices[i] = tilted(q[0], q[1], axis);
+                }
+                Polygon polygon = new Polygon(vertices);
+                Vector n = polygon.getNormal(vertices[0]);
+                Point inside = tilted(1, 1, axis), outside = tilted(2.9, 1.9, axis);
+                assertNotNull(polygon.findIntersections(new Ray(inside.add(n), n.scale(-1))),
+                        "Ray inside the pentagon misses on axis " + axis);
+                assertNotNull(polygon.findIntersections(new Ray(inside.add(n.scale(-1)), n)),
+                        "Back side ray inside the pentagon misses on axis " + axis);
+                assertNull(polygon.findIntersections(new Ray(outside.add(n), n.scale(-1))),
+                        "Ray outside the pentagon hits on axis " + axis);
+            }
     }
-}
\ No newline at end of file
+
+    /**
+     * Places a point of the xy plane on a tilted plane whose normal is dominated by a given axis
+     *
+     * @param x    the x coordinate in the xy plane
+     * @param y    the y coordinate in the xy plane
+     * @param axis the dominant axis of the normal of the plane
+     * @return the point
+     */
+    private static Point tilted(double x, double y, int axis) {
+        double z = 0.2 * x + 0.1 * y;
+        return axis == 0 ? new Point(z, x, y) : axis == 1 ? new Point(y, z, x) : new Point(x, y, z);
+    }
+}
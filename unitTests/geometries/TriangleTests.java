@@ -69,5 +69,40 @@ TriangleTests {
         //TC07: Ray intersect on edge's continuation
         assertNull(triangle.findIntersections(new Ray(new Point(-1,0,0), new Vector(0.24, 0.01, 4.99))),
                 "Ray does not cross the triangle");
+        //TC08: Ray parallel to the triangle
+        assertNull(triangle.findIntersections(new Ray(new Point(4,0,0), new Vector(-3, 3, 0))),
+                "Ray parallel to the triangle");
+        //TC09: Ray starting inside the triangle
+        assertNull(triangle.findIntersections(new Ray(new Point(1,1,4d/3), new Vector(1, 1, 1))),
+                "Ray starts on the triangle");
+        //TC10: the distance limit before and after the point
+        Ray ray = new Ray(new Point(1, 0, 0), new Vector(0.12, 0.95, 1.25));
+        double t = p.distance(ray.getP0());
+        assertNull(triangle.findGeoIntersections(ray, t - 0.001), "Point beyond the distance limit");
+        assertEquals(t, triangle.findClosestGeoIntersection(ray, t + 0.001).t, 1e-12, "Wrong ray parameter");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link geometries.Triangle#findDistance(Ray, double, double[])}.
+     */
+    @Test
+    void testFindDistance() {
+        Triangle triangle = new Triangle(new Point(3, 0, 0), new Point(0, 3, 0), new Point(0, 0, 4));
+        double[] barycentric = new double[3];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the point 0.2 * A + 0.3 * B + 0.5 * C gives its weights
+        Ray ray = new Ray(new Point(0.6, 0.9, 0), new Vector(0, 0, 1));
+        assertEquals(2, triangle.findDistance(ray, Double.POSITIVE_INFINITY, barycentric), 1e-12,
+                "Wrong ray parameter");
+        assertArrayEquals(new double[]{0.2, 0.3, 0.5}, barycentric, 1e-12, "Wrong barycentric coordinates");
+        // TC02: the same ray parameter without barycentric coordinates
+        assertEquals(2, triangle.findDistance(ray, Double.POSITIVE_INFINITY), 1e-12, "Wrong ray parameter");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a missing ray leaves the coordinates as they were
+        assertTrue(Double.isNaN(triangle.findDistance(new Ray(new Point(4, 4, 0), new Vector(0, 0, 1)),
+                Double.POSITIVE_INFINITY, barycentric)), "Ray misses the triangle");
+        assertArrayEquals(new double[]{0.2, 0.3, 0.5}, barycentric, 1e-12, "Coordinates changed by a miss");
+    }
+}
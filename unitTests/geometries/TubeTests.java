@@ -4,6 +4,9 @@ import org.junit.jupiter.api.Test;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
+
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -42,9 +45,41 @@ class TubeTests {
 
 
     /**
-     * Test method for {@link geometries.Sphere#findIntersections(Ray)}.
+     * Test method for {@link geometries.Tube#findIntersections(Ray)}.
      */
     @Test
     void testFindIntersections() {
+        Tube tube = new Tube(1, new Ray(new Point(0, 0, 0), new Vector(1, 0, 0)));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: Ray crosses the tube (2 points)
+        Ray ray = new Ray(new Point(5, -2, 0), new Vector(0, 1, 0));
+        assertEquals(List.of(new Point(5, -1, 0), new Point(5, 1, 0)), tube.findIntersections(ray), "Wrong points");
+        assertEquals(1, tube.findClosestGeoIntersection(ray).t, 1e-12, "Wrong closest point");
+        // TC02: Ray misses the tube
+        assertNull(tube.findIntersections(new Ray(new Point(5, -2, 3), new Vector(0, 1, 0))), "Ray misses the tube");
+        // TC03: Ray starts inside the tube (1 point)
+        assertEquals(List.of(new Point(-3, 0, 1)), tube.findIntersections(new Ray(new Point(-3, 0, 0), new Vector(0, 0, 1))),
+                "Wrong point from inside");
+        // TC04: Ray starts after the tube
+        assertNull(tube.findIntersections(new Ray(new Point(5, 2, 0), new Vector(0, 1, 0))), "Ray after the tube");
+        // TC05: Oblique ray
+        List<Point> points = tube.findIntersections(new Ray(new Point(0, -3, 0.5), new Vector(1, 1, 0.1)));
+        assertEquals(2, points.size(), "Wrong number of oblique points");
+        for (Point p : points)
+            assertEquals(1, p.getY() * p.getY() + p.getZ() * p.getZ(), 1e-12, "Oblique point not on the tube");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Ray parallel to the axis
+        assertNull(tube.findIntersections(new Ray(new Point(0, 0.5, 0), new Vector(1, 0, 0))), "Parallel ray hits");
+        // TC11: Ray tangent to the tube
+        assertNull(tube.findIntersections(new Ray(new Point(0, -2, 1), new Vector(0, 1, 0))), "Tangent ray hits");
+        // TC12: Ray starts on the tube going in, and going out
+        assertEquals(List.of(new Point(2, 1, 0)), tube.findIntersections(new Ray(new Point(2, -1, 0), new Vector(0, 1, 0))),
+                "Wrong point from the tube inwards");
+        assertNull(tube.findIntersections(new Ray(new Point(2, 1, 0), new Vector(0, 1, 0))), "Ray from the tube outwards");
+        // TC13: the distance limit between the points
+        assertEquals(1, tube.findGeoIntersections(ray, 2).size(), "Distance limit ignored");
+        assertNull(tube.findGeoIntersections(ray, 0.5), "Distance limit ignored");
     }
 }
\ No newline at end of file
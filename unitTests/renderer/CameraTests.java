@@ -8,8 +8,28 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 
+import geometries.Sphere;
+import lighting.PointLight;
 import primitives.*;
 import renderer.Camera;
+import scene.Scene;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Testing Camera Class
@@ -60,4 +80,430 @@ class CameraTests {
                 camera.setVPSize(8, 8).constructRays(4, 4, 1, 0).get(0), badRay);
 
     }
+
+    /**
+     * Creates a camera looking at a small lit sphere
+     *
+     * @param name the image name
+     * @return the camera
+     */
+    static Camera sphereCamera(String name) {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(50, 20, 20))
+                .setMaterial(new Material().setkD(0.5).setkS(0.5).setnShininess(30)));
+        scene.lights.add(new PointLight(new Color(500, 300, 0), new Point(-50, -50, 50)));
+        return new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+                .setVPDistance(100).setVPSize(150, 150) //
+                .setImageWriter(new ImageWriter(name, 60, 60)) //
+                .setRayTracer(new RayTracerBasic(scene));
+    }
+
+    /**
+     * Asserts that two rendered images are identical
+     *
+     * @param expected the reference image
+     * @param actual   the tested image
+     * @param message  the failure message
+     */
+    static void assertSameImage(ImageWriter expected, ImageWriter actual, String message) {
+        for (int i = 0; i < expected.getNy(); ++i)
+            for (int j = 0; j < expected.getNx(); ++j)
+                assertEquals(expected.getPixel(j, i), actual.getPixel(j, i), message);
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} - renders running at the same time
+     * must not interfere with each other.
+     */
+    @Test
+    void testConcurrentRenders() throws InterruptedException {
+        ImageWriter expected = new ImageWriter("sequential", 60, 60);
+        sphereCamera("sequential").setImageWriter(expected).renderImage();
+
+        ImageWriter first = new ImageWriter("concurrent1", 60, 60);
+        ImageWriter second = new ImageWriter("concurrent2", 60, 60);
+        Thread t1 = new Thread(() -> sphereCamera("concurrent1").setImageWriter(first).setMultiThreading(3).setTileSize(7).renderImage());
+        Thread t2 = new Thread(() -> sphereCamera("concurrent2").setImageWriter(second).setMultiThreading(2).renderImage());
+        t1.start();
+        t2.start();
+        t1.join();
+        t2.join();
+
+        assertSameImage(expected, first, "Concurrent render differs from the sequential one");
+        assertSameImage(expected, second, "Concurrent render differs from the sequential one");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setExecutionMode(Camera.ExecutionMode)}.
+     */
+    @Test
+    void testExecutionMode() {
+        ImageWriter expected = new ImageWriter("pool", 60, 60);
+        sphereCamera("pool").setImageWriter(expected).renderImage();
+
+        ImageWriter perTile = new ImageWriter("perTile", 60, 60);
+        sphereCamera("perTile").setImageWriter(perTile).setTileSize(8)
+                .setExecutionMode(Camera.ExecutionMode.VIRTUAL_THREADS).renderImage();
+        assertSameImage(expected, perTile, "Task per tile render differs from the pool render");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setProgressive(boolean)}.
+     */
+    @Test
+    void testProgressive() {
+        ImageWriter expected = new ImageWriter("grid", 60, 60);
+        sphereCamera("grid").setImageWriter(expected).setAntiAliasing(4).renderImage();
+
+        ImageWriter progressive = new ImageWriter("progressive", 60, 60);
+        List<Integer> samples = new LinkedList<>();
+        sphereCamera("progressive").setImageWriter(progressive).setAntiAliasing(4).setProgressive(true)
+                .setSnapshotListener((pass, spp, image) -> samples.add(spp)).renderImage();
+
+        // TC01: every pass doubles the samples until the whole 4x4 grid is traced
+        assertEquals(List.of(1, 2, 4, 8, 16), samples, "Wrong samples per pass");
+        // TC02: the final image equals the regular render (up to the rounding of the averages)
+        for (int i = 0; i < 60; ++i)
+            for (int j = 0; j < 60; ++j) {
+                int e = expected.getPixel(j, i), a = progressive.getPixel(j, i);
+                for (int shift = 0; shift < 24; shift += 8)
+                    assertEquals((e >> shift) & 0xFF, (a >> shift) & 0xFF, 1, "Progressive render differs");
+            }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setTimeBudget(long)}.
+     */
+    @Test
+    void testTimeBudget() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a short budget - every pixel has its primary ray and the render stops in time
+        Camera camera = sphereCamera("budget").setAntiAliasing(8).setTimeBudget(100);
+        long start = System.nanoTime();
+        camera.renderImage();
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        SampleStats stats = camera.getSampleStats();
+        assertTrue(stats.getMinSamples() >= 1, "A pixel was left without samples");
+        assertTrue(stats.getMaxSamples() <= 64, "A pixel was sampled beyond the anti-aliasing grid");
+        assertTrue(elapsed < 2000, "The render ran far beyond its budget");
+
+        // TC02: a long budget - the noisy pixels are refined to the whole grid, the flat background is not
+        camera = sphereCamera("converged").setAntiAliasing(8).setTimeBudget(60_000).renderImage();
+        stats = camera.getSampleStats();
+        assertEquals(64, stats.getMaxSamples(), "The noisy pixels were not refined");
+        assertEquals(2, stats.getMinSamples(), "The flat pixels were refined");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: negative budget
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("negative").setTimeBudget(-1),
+                "Negative time budget accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setVarianceSampling(int, int, double)}.
+     */
+    @Test
+    void testVarianceSampling() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the flat background stops at the minimum, the noisy pixels take more samples
+        Camera camera = sphereCamera("variance").setVarianceSampling(4, 64, 0.5).renderImage();
+        SampleStats stats = camera.getSampleStats();
+        assertEquals(3600, stats.getPixels(), "Wrong amount of pixels");
+        assertEquals(4, stats.getMinSamples(), "The flat pixels were over-sampled");
+        assertTrue(stats.getMaxSamples() > 4 && stats.getMaxSamples() <= 64, "The noisy pixels were not refined");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: minimum equals maximum - the regular grid of the same size
+        ImageWriter expected = new ImageWriter("grid", 60, 60);
+        sphereCamera("grid").setImageWriter(expected).setAntiAliasing(4).renderImage();
+        ImageWriter fixed = new ImageWriter("fixed", 60, 60);
+        camera = sphereCamera("fixed").setImageWriter(fixed).setVarianceSampling(16, 16, 0).renderImage();
+        assertEquals(16 * 3600L, camera.getSampleStats().getTotalSamples(), "Wrong amount of samples");
+        for (int i = 0; i < 60; ++i)
+            for (int j = 0; j < 60; ++j) {
+                int e = expected.getPixel(j, i), a = fixed.getPixel(j, i);
+                for (int shift = 0; shift < 24; shift += 8)
+                    assertEquals((e >> shift) & 0xFF, (a >> shift) & 0xFF, 1, "Fixed samples render differs");
+            }
+        // TC11: invalid amounts of samples and threshold
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setVarianceSampling(0, 4, 1),
+                "Zero minimum samples accepted");
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setVarianceSampling(8, 4, 1),
+                "Minimum above maximum accepted");
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setVarianceSampling(1, 4, -1),
+                "Negative threshold accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setadaptive(boolean)} - the corners shared by sub-pixels
+     * and by neighbouring pixels are traced only once.
+     */
+    @Test
+    void testAdaptiveCornerCache() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(50, new Point(0, 0, -100)).setEmission(new Color(50, 20, 20)));
+        List<List<Double>> traced = new ArrayList<>();
+        RayTracerBasic tracer = new RayTracerBasic(scene) {
+            @Override
+            public Color traceRay(Ray ray) {
+                Vector dir = ray.getDir();
+                traced.add(List.of(dir.getX(), dir.getY(), dir.getZ()));
+                return super.traceRay(ray);
+            }
+        };
+        new Camera(ZERO_POINT, new Vector(0, 0, -1), new Vector(0, 1, 0)) //
+                .setVPDistance(100).setVPSize(150, 150) //
+                .setImageWriter(new ImageWriter("adaptive", 60, 60)) //
+                .setRayTracer(tracer).setTileSize(60).setAntiAliasing(16).setadaptive(true) //
+                .renderImage();
+        // TC01: a single tile - every corner is traced once, at most all the lattice points
+        assertEquals(traced.size(), new HashSet<>(traced).size(), "A corner was traced twice");
+        assertTrue(traced.size() <= 241 * 241, "More rays than lattice points");
+        // TC02: the flat pixels are not divided - far less than the full lattice is traced
+        assertTrue(traced.size() < 61 * 61 * 2, "Flat pixels were divided");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setSampler(Sampler, int)}.
+     */
+    @Test
+    void testSampler() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the image does not depend on the amount of threads
+        ImageWriter single = new ImageWriter("sobol1", 60, 60);
+        sphereCamera("sobol1").setImageWriter(single).setSampler(new SobolSampler(), 8).renderImage();
+        ImageWriter multi = new ImageWriter("sobol3", 60, 60);
+        sphereCamera("sobol3").setImageWriter(multi).setSampler(new SobolSampler(), 8)
+                .setMultiThreading(3).setTileSize(5).renderImage();
+        assertSameImage(single, multi, "Sampled render depends on the threads");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: no samples
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setSampler(new HaltonSampler(), 0),
+                "Zero samples per pixel accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#addRegion(int, int, int, int)}.
+     */
+    @Test
+    void testRegions() {
+        ImageWriter expected = new ImageWriter("full", 60, 60);
+        sphereCamera("full").setImageWriter(expected).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: two regions are rendered, the other pixels are left untouched
+        ImageWriter partial = new ImageWriter("regions", 60, 60);
+        Color marker = new Color(1, 2, 3);
+        for (int i = 0; i < 60; ++i)
+            for (int j = 0; j < 60; ++j)
+                partial.writePixel(j, i, marker);
+        int markerRGB = partial.getPixel(0, 0);
+        sphereCamera("regions").setImageWriter(partial).setTileSize(7)
+                .addRegion(10, 20, 15, 10).addRegion(40, 0, 20, 60).renderImage();
+        for (int i = 0; i < 60; ++i)
+            for (int j = 0; j < 60; ++j) {
+                boolean inside = (j >= 10 && j < 25 && i >= 20 && i < 30) || j >= 40;
+                assertEquals(inside ? expected.getPixel(j, i) : markerRGB, partial.getPixel(j, i),
+                        "Wrong pixel in the partial render");
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a region partly outside the image is clipped
+        ImageWriter clipped = new ImageWriter("clipped", 60, 60);
+        sphereCamera("clipped").setImageWriter(clipped).addRegion(50, 50, 30, 30).renderImage();
+        assertEquals(expected.getPixel(59, 59), clipped.getPixel(59, 59), "Clipped region not rendered");
+        // TC11: overlapping and empty regions
+        assertThrows(IllegalArgumentException.class,
+                () -> sphereCamera("x").addRegion(0, 0, 10, 10).addRegion(9, 9, 5, 5), "Overlapping regions accepted");
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").addRegion(0, 0, 0, 10),
+                "Empty region accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderCrop(String, int, int, int, int)}.
+     */
+    @Test
+    void testRenderCrop() {
+        ImageWriter expected = new ImageWriter("full", 60, 60);
+        sphereCamera("full").setImageWriter(expected).setAntiAliasing(2).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the crop holds the pixels of the rectangle of the full image
+        ImageWriter crop = sphereCamera("full").setAntiAliasing(2).renderCrop("crop", 15, 25, 20, 10);
+        assertEquals(20, crop.getNx(), "Wrong crop width");
+        assertEquals(10, crop.getNy(), "Wrong crop height");
+        for (int i = 0; i < 10; ++i)
+            for (int j = 0; j < 20; ++j)
+                assertEquals(expected.getPixel(15 + j, 25 + i), crop.getPixel(j, i), "Wrong cropped pixel");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: a rectangle outside the image
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").renderCrop("x", 50, 50, 20, 20),
+                "Crop outside the image accepted");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImageAsync(ProgressListener...)}.
+     */
+    @Test
+    void testRenderAsync() throws InterruptedException, ExecutionException {
+        ImageWriter expected = new ImageWriter("blocking", 60, 60);
+        sphereCamera("blocking").setImageWriter(expected).setAntiAliasing(2).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the asynchronous render completes with the image of the blocking render and reports every tile
+        ImageWriter image = new ImageWriter("async", 60, 60);
+        AtomicInteger calls = new AtomicInteger();
+        Camera camera = sphereCamera("async").setImageWriter(image).setAntiAliasing(2);
+        RenderTask task = camera.renderImageAsync(t -> calls.incrementAndGet());
+        assertEquals(camera, task.get(), "Wrong render result");
+        assertSameImage(expected, image, "Asynchronous render differs from the blocking one");
+        assertEquals(16, task.getTilesCount(), "Wrong tiles count");
+        assertEquals(16, task.getTilesDone(), "Wrong tiles done");
+        assertEquals(16, calls.get(), "Listener not called after every tile");
+        assertEquals(3600, task.getPixelsDone(), "Wrong pixels done");
+        assertEquals(3600 * 4, task.getRaysTraced(), "Wrong rays traced");
+        assertEquals(1, task.getProgress(), 0, "Wrong progress of a done render");
+        assertEquals(0, task.getEtaMillis(), "Wrong remaining time of a done render");
+        assertFalse(task.cancel(true), "Done render cancelled");
+
+        // TC02: a cancelled render stops within one tile of every rendering thread
+        RenderTask cancelled = sphereCamera("cancelled").setImageWriter(new ImageWriter("cancelled", 400, 400))
+                .setAntiAliasing(3).setTileSize(8).renderImageAsync();
+        assertTrue(cancelled.cancel(false), "Running render not cancelled");
+        int tilesDone = cancelled.getTilesDone();
+        assertThrows(CancellationException.class, cancelled::get, "Cancelled render completed");
+        assertTrue(cancelled.isCancelled(), "Render not marked as cancelled");
+        Thread.sleep(300);
+        assertTrue(cancelled.getTilesDone() <= tilesDone + 1, "Tiles rendered after the render was cancelled");
+        assertTrue(cancelled.getTilesDone() < cancelled.getTilesCount(), "Cancelled render finished all the tiles");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setTilePublisher(SubmissionPublisher)}.
+     */
+    @Test
+    void testTilePublisher() throws InterruptedException {
+        ImageWriter image = new ImageWriter("published", 60, 60);
+        List<RenderedTile> received = new ArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        SubmissionPublisher<RenderedTile> publisher = new SubmissionPublisher<>(executor, 2);
+        // a slow subscriber requesting a single tile at a time
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(RenderedTile tile) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                synchronized (received) {
+                    received.add(tile);
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.countDown();
+            }
+        });
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the render waits for the slow subscriber - when it ends only the buffered tiles are left
+        sphereCamera("published").setImageWriter(image).setAntiAliasing(2).setTilePublisher(publisher).renderImage();
+        synchronized (received) {
+            assertTrue(received.size() >= 16 - 2 - 1, "Tiles buffered beyond the subscriber's capacity");
+        }
+        publisher.close();
+        assertTrue(completed.await(5, TimeUnit.SECONDS), "Stream of tiles not completed");
+        executor.shutdown();
+
+        // TC02: every tile is published once with the pixels of the image
+        assertEquals(16, received.size(), "Wrong amount of published tiles");
+        int pixels = 0;
+        for (RenderedTile tile : received) {
+            pixels += tile.getPixels().length;
+            for (int row = 0; row < tile.getHeight(); ++row)
+                for (int col = 0; col < tile.getWidth(); ++col)
+                    assertEquals(image.getPixel(tile.getX() + col, tile.getY() + row), tile.getPixel(col, row),
+                            "Wrong published pixel");
+        }
+        assertEquals(3600, pixels, "Published tiles do not cover the image");
+    }
+
+    /**
+     * An image failing after a given amount of rendered pixels, as if the process was killed
+     */
+    static class KilledImage extends ImageWriter {
+        private final int limit;
+        int rendered = 0;
+
+        KilledImage(String name, int limit) {
+            super(name, 60, 60);
+            this.limit = limit;
+        }
+
+        @Override
+        public void writePixel(int xIndex, int yIndex, Color color) {
+            if (++rendered > limit) throw new IllegalStateException("Killed");
+            super.writePixel(xIndex, yIndex, color);
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#setCheckpoint(Path, long, boolean)}.
+     */
+    @Test
+    void testCheckpoint() throws IOException {
+        Path file = Files.createTempFile("checkpoint", ".bin");
+        Files.delete(file);
+        ImageWriter expected = new ImageWriter("full", 60, 60);
+        Camera reference = sphereCamera("full").setImageWriter(expected).setVarianceSampling(1, 16, 2);
+        reference.renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a render killed in the middle (starting with no checkpoint file) is resumed from its checkpoint
+        // and renders only the tiles not finished before - the first row of tiles holds 960 pixels
+        assertThrows(IllegalStateException.class, () -> sphereCamera("killed").setImageWriter(new KilledImage("killed", 1000))
+                .setVarianceSampling(1, 16, 2).setCheckpoint(file, 1, true).renderImage(), "The render was not killed");
+        assertTrue(Files.exists(file), "No checkpoint written");
+        KilledImage resumed = new KilledImage("resumed", Integer.MAX_VALUE);
+        Camera camera = sphereCamera("resumed").setImageWriter(resumed).setVarianceSampling(1, 16, 2)
+                .setCheckpoint(file, 1, true);
+        camera.renderImage();
+        assertSameImage(expected, resumed, "Resumed render differs from the uninterrupted one");
+        assertEquals(3600 - 960, resumed.rendered, "Finished tiles rendered again");
+        assertEquals(reference.getSampleStats().getTotalSamples(), camera.getSampleStats().getTotalSamples(),
+                "Samples of the finished tiles not resumed");
+        assertFalse(Files.exists(file), "Checkpoint kept after the render completed");
+
+        // TC02: a checkpoint of another render is not resumed
+        assertThrows(IllegalStateException.class, () -> sphereCamera("killed").setImageWriter(new KilledImage("killed", 1000))
+                .setVarianceSampling(1, 16, 2).setCheckpoint(file, 60000, false).renderImage(), "The render was not killed");
+        assertThrows(IllegalStateException.class, () -> sphereCamera("other").setCheckpoint(file, 60000, true).renderImage(),
+                "Checkpoint of another render resumed");
+        Files.delete(file);
+
+        // =============== Boundary Values Tests ==================
+        // TC10: negative and zero checkpoint intervals
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setCheckpoint(file, -1, true),
+                "Negative checkpoint interval accepted");
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("x").setCheckpoint(file, 0, true),
+                "Zero checkpoint interval accepted");
+    }
 }
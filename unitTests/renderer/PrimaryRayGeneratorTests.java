@@ -0,0 +1,70 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing PrimaryRayGenerator
+ * @author ori shoshana and amir hay
+ */
+class PrimaryRayGeneratorTests {
+
+    /**
+     * Test method for {@link renderer.PrimaryRayGenerator#generate(int, int, Ray[])}.
+     */
+    @Test
+    void testGenerate() {
+        Point p0 = new Point(1, 2, 3);
+        Vector vTo = new Vector(0, 0, -1), vUp = new Vector(0, 1, 0);
+        Camera camera = new Camera(p0, vTo, vUp).setVPDistance(10).setVPSize(8, 6).setAntiAliasing(3);
+        PrimaryRayGenerator generator = new PrimaryRayGenerator(p0, p0.add(vTo.scale(10)),
+                vTo.crossProduct(vUp), vUp, 8, 6, 4, 3, 3);
+        Ray[] rays = new Ray[generator.raysPerPixel()];
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the generated rays are exactly the rays of the camera, for every pixel
+        assertEquals(9, rays.length, "Wrong amount of rays per pixel");
+        for (int i = 0; i < 3; ++i)
+            for (int j = 0; j < 4; ++j) {
+                generator.generate(j, i, rays);
+                List<Ray> expected = camera.constructRays(4, 3, j, i);
+                for (int k = 0; k < rays.length; ++k) {
+                    assertEquals(expected.get(k).getP0(), rays[k].getP0(), "Wrong ray origin");
+                    assertEquals(expected.get(k).getDir().toString(), rays[k].getDir().toString(),
+                            "Wrong ray direction");
+                }
+            }
+
+        // =============== Boundary Values Tests ==================
+        // TC10: the center of a pixel through a position inside it
+        Ray center = generator.generate(1, 1, 0.5, 0.5);
+        assertEquals(new Vector(-1, 0, -10).normalize(), center.getDir(), "Wrong ray through the pixel center");
+    }
+
+    /**
+     * Test method for {@link renderer.PrimaryRayGenerator#matches(Point, Point, double, double, int, int, int)}.
+     */
+    @Test
+    void testMatches() {
+        Point p0 = new Point(0, 0, 0), center = new Point(0, 0, -10);
+        PrimaryRayGenerator generator = new PrimaryRayGenerator(p0, center, new Vector(1, 0, 0),
+                new Vector(0, 1, 0), 8, 6, 4, 3, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same setup - the tables are reused
+        assertTrue(generator.matches(p0, center, 8, 6, 4, 3, 2), "Same setup not matched");
+        // TC02: another resolution
+        assertFalse(generator.matches(p0, center, 8, 6, 8, 6, 2), "Other resolution matched");
+        // TC03: another anti-aliasing grid
+        assertFalse(generator.matches(p0, center, 8, 6, 4, 3, 3), "Other anti-aliasing matched");
+        // TC04: another view plane
+        assertFalse(generator.matches(p0, new Point(0, 0, -20), 8, 6, 4, 3, 2), "Other view plane matched");
+        assertFalse(generator.matches(p0, center, 16, 6, 4, 3, 2), "Other view plane size matched");
+    }
+}
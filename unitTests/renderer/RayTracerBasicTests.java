@@ -0,0 +1,70 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayTracerBasic
+ * @author ori shoshana and amir hay
+ */
+class RayTracerBasicTests {
+    static final Point ZERO_POINT = new Point(0, 0, 0);
+    static final int PIXELS = 11;
+
+    /**
+     * Samples a pixel of a row with the regular super-sampling
+     *
+     * @param tracer the tracer
+     * @param x      the pixel index
+     * @return the color of the pixel
+     */
+    private static Color samplePixel(RayTracerBase tracer, int x) {
+        return tracer.RegularSuperSampling(new Point(x - PIXELS / 2, 0, -100), 1, 1, 0.25, 0.25,
+                ZERO_POINT, new Vector(1, 0, 0), new Vector(0, 1, 0), null);
+    }
+
+    /**
+     * Test method for {@link renderer.RayTracerBasic#RegularSuperSampling(Point, double, double, double, double, Point, Vector, Vector, java.util.List)}.
+     */
+    @Test
+    void testRegularSuperSamplingDeterministic() throws Exception {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(3, new Point(0, 0, -100)).setEmission(new Color(200, 100, 50)));
+        RayTracerBase tracer = new RayTracerBasic(scene).setSeed(42);
+
+        Color[] expected = new Color[PIXELS];
+        for (int x = 0; x < PIXELS; ++x) expected[x] = samplePixel(tracer, x);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the pixels sampled in another order give the same colors
+        for (int x = PIXELS - 1; x >= 0; --x)
+            assertEquals(expected[x].toString(), samplePixel(tracer, x).toString(), "Pixel depends on the order");
+
+        // TC02: the pixels sampled by several threads give the same colors
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Color[] parallel = pool.submit(() -> IntStream.range(0, PIXELS).parallel()
+                    .mapToObj(x -> samplePixel(tracer, x)).toArray(Color[]::new)).get();
+            for (int x = 0; x < PIXELS; ++x)
+                assertEquals(expected[x].toString(), parallel[x].toString(), "Pixel depends on the thread");
+        } finally {
+            pool.shutdown();
+        }
+
+        // TC03: other seeds give other jitter - the pixels on the edge of the sphere change
+        boolean differs = false;
+        for (long seed = 0; seed < 10 && !differs; ++seed) {
+            RayTracerBase other = new RayTracerBasic(scene).setSeed(seed);
+            for (int x = 0; x < PIXELS; ++x)
+                differs |= !expected[x].toString().equals(samplePixel(other, x).toString());
+        }
+        assertTrue(differs, "The seed does not affect the samples");
+    }
+}
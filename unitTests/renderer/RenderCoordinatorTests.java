@@ -0,0 +1,102 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static renderer.CameraTests.assertSameImage;
+import static renderer.CameraTests.sphereCamera;
+
+/**
+ * Testing the distributed rendering of {@link RenderCoordinator} and {@link RenderWorker}
+ *
+ * @author ori shoshana and amir hay
+ */
+class RenderCoordinatorTests {
+
+    /**
+     * Test method for {@link renderer.Camera#setWorkerProcesses(int)}.
+     */
+    @Test
+    void testWorkerProcesses() {
+        ImageWriter expected = new ImageWriter("local", 60, 60);
+        sphereCamera("local").setImageWriter(expected).setAntiAliasing(2).renderImage();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The image rendered by worker processes is the one rendered locally
+        ImageWriter distributed = new ImageWriter("distributed", 60, 60);
+        sphereCamera("distributed").setImageWriter(distributed).setAntiAliasing(2)
+                .setWorkerProcesses(2).renderImage();
+        assertSameImage(expected, distributed, "Distributed render differs from the local one");
+        // and the tiles are rendered by the workers, none is left for the caller
+        ImageWriter image = new ImageWriter("workers", 60, 60);
+        Tile[] tiles = Tile.split(60, 60, 16);
+        AtomicInteger finished = new AtomicInteger();
+        List<Tile> leftover = new ArrayList<>();
+        new RenderCoordinator(sphereCamera("workers").setAntiAliasing(2), 60, 60, 2)
+                .render(new RenderTarget(60, 60, tiles, image, 0, 0), t -> finished.incrementAndGet(),
+                        t -> leftover.addAll(List.of(t)));
+        assertEquals(tiles.length, finished.get(), "Tiles not rendered by the workers");
+        assertEquals(0, leftover.size(), "Tiles left for the caller");
+        assertSameImage(expected, image, "Image of the workers differs from the local one");
+
+        // =============== Boundary Values Tests ==================
+        // TC10: Negative amount of workers
+        assertThrows(IllegalArgumentException.class, () -> sphereCamera("bad").setWorkerProcesses(-1),
+                "Negative amount of workers must throw");
+    }
+
+    /**
+     * Test method for
+     * {@link renderer.RenderCoordinator#render(RenderTarget, java.util.function.Consumer, java.util.function.Consumer)}.
+     */
+    @Test
+    void testDyingWorkers() {
+        ImageWriter expected = new ImageWriter("local", 60, 60);
+        sphereCamera("local").setImageWriter(expected).renderImage();
+        Tile[] tiles = Tile.split(60, 60, 16);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: The tiles of a worker dying in the middle of the render are rendered by the other worker
+        ImageWriter image = new ImageWriter("dying", 60, 60);
+        List<Tile> leftover = new ArrayList<>();
+        new RenderCoordinator(sphereCamera("dying"), 60, 60, 2) {
+            @Override
+            List<String> workerCommand(int port, int index) {
+                List<String> command = new ArrayList<>(super.workerCommand(port, index));
+                if (index == 0) command.add("2");
+                return command;
+            }
+        }.render(new RenderTarget(60, 60, tiles, image, 0, 0), t -> {}, t -> leftover.addAll(List.of(t)));
+        assertEquals(0, leftover.size(), "The living worker must render the tiles of the dying one");
+        assertSameImage(expected, image, "Render with a dying worker differs from the local one");
+
+        // TC02: The tiles left when all the workers died are handed back and rendered locally
+        image = new ImageWriter("dead", 60, 60);
+        Camera camera = sphereCamera("dead").setImageWriter(image);
+        RenderTarget target = new RenderTarget(60, 60, tiles, image, 0, 0);
+        List<Tile> rest = new ArrayList<>();
+        new RenderCoordinator(camera, 60, 60, 2) {
+            @Override
+            List<String> workerCommand(int port, int index) {
+                List<String> command = new ArrayList<>(super.workerCommand(port, index));
+                command.add("1");
+                return command;
+            }
+        }.render(target, t -> {}, t -> rest.addAll(List.of(t)));
+        assertEquals(tiles.length - 2, rest.size(), "Every dead worker must have rendered a single tile");
+        int rendered = 0;
+        for (Tile tile : tiles)
+            if (!rest.contains(tile)) {
+                ++rendered;
+                for (int row = tile.y0; row < tile.y1; ++row)
+                    for (int col = tile.x0; col < tile.x1; ++col)
+                        assertEquals(expected.getPixel(col, row), image.getPixel(col, row),
+                                "A tile rendered by a worker differs from the local one");
+            }
+        assertEquals(2, rendered, "Only the tiles of the workers must be written");
+    }
+}
@@ -0,0 +1,121 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the pixel samplers
+ * @author ori shoshana and amir hay
+ */
+class SamplerTests {
+
+    /**
+     * Checks the common contract of a sampler - the points are in the unit square,
+     * the same pixel gets the same points and another pixel gets other points
+     *
+     * @param sampler the sampler to check
+     * @param name    the name of the sampler for the failure messages
+     */
+    private static void checkContract(Sampler sampler, String name) {
+        double[] points = new double[32];
+        sampler.sample(3, 7, 16, points);
+        for (double p : points)
+            assertTrue(p >= 0 && p < 1, name + ": sample out of the pixel");
+
+        double[] again = new double[32];
+        sampler.sample(3, 7, 16, again);
+        assertArrayEquals(points, again, 0, name + ": the same pixel got other samples");
+
+        double[] other = new double[32];
+        sampler.sample(4, 7, 16, other);
+        assertFalse(Arrays.equals(points, other), name + ": neighbouring pixels got the same samples");
+    }
+
+    /**
+     * Counts the samples in every cell of an n x n grid over the pixel
+     *
+     * @param points the samples
+     * @param n      the amount of cells in a row and in a column
+     * @return the amount of samples of every cell
+     */
+    private static int[] strata(double[] points, int n) {
+        int[] count = new int[n * n];
+        for (int k = 0; k < points.length / 2; ++k)
+            count[(int) (points[2 * k + 1] * n) * n + (int) (points[2 * k] * n)]++;
+        return count;
+    }
+
+    /**
+     * Test method for {@link renderer.StratifiedSampler#sample(int, int, int, double[])}.
+     */
+    @Test
+    void testStratified() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: deterministic samples in the pixel
+        checkContract(new StratifiedSampler(), "Stratified");
+        // TC02: a square amount of samples - one sample in every stratum
+        double[] points = new double[32];
+        new StratifiedSampler(5).sample(0, 0, 16, points);
+        for (int c : strata(points, 4))
+            assertEquals(1, c, "Stratum without exactly one sample");
+    }
+
+    /**
+     * Test method for {@link renderer.HaltonSampler#sample(int, int, int, double[])}.
+     */
+    @Test
+    void testHalton() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: deterministic samples in the pixel
+        checkContract(new HaltonSampler(), "Halton");
+        // TC02: the radical inverse mirrors the digits
+        assertEquals(0.5, HaltonSampler.radicalInverse(1, 2), 0, "Wrong radical inverse");
+        assertEquals(0.75, HaltonSampler.radicalInverse(3, 2), 0, "Wrong radical inverse");
+        assertEquals(1d / 9, HaltonSampler.radicalInverse(3, 3), 1e-15, "Wrong radical inverse");
+    }
+
+    /**
+     * Test method for {@link renderer.SobolSampler#sample(int, int, int, double[])}.
+     */
+    @Test
+    void testSobol() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: deterministic samples in the pixel
+        checkContract(new SobolSampler(), "Sobol");
+        // TC02: 16 samples form a (0,4,2)-net - one sample in every 4x4 cell, 16x1 strip and 1x16 strip
+        double[] points = new double[32];
+        new SobolSampler(9).sample(2, 5, 16, points);
+        for (int c : strata(points, 4))
+            assertEquals(1, c, "Cell without exactly one sample");
+        boolean[] columns = new boolean[16], rows = new boolean[16];
+        for (int k = 0; k < 16; ++k) {
+            columns[(int) (points[2 * k] * 16)] = true;
+            rows[(int) (points[2 * k + 1] * 16)] = true;
+        }
+        for (int i = 0; i < 16; ++i)
+            assertTrue(columns[i] && rows[i], "Strip without a sample");
+    }
+
+    /**
+     * Test method for {@link renderer.BlueNoiseSampler#sample(int, int, int, double[])}.
+     */
+    @Test
+    void testBlueNoise() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: deterministic samples in the pixel
+        checkContract(new BlueNoiseSampler(), "Blue noise");
+        // TC02: the samples keep a distance from each other (around the pixel borders)
+        double[] points = new double[32];
+        new BlueNoiseSampler().sample(0, 0, 16, points);
+        for (int i = 0; i < 16; ++i)
+            for (int j = i + 1; j < 16; ++j) {
+                double dx = Math.abs(points[2 * i] - points[2 * j]), dy = Math.abs(points[2 * i + 1] - points[2 * j + 1]);
+                dx = Math.min(dx, 1 - dx);
+                dy = Math.min(dy, 1 - dy);
+                assertTrue(Math.sqrt(dx * dx + dy * dy) > 0.1, "Samples too close to each other");
+            }
+    }
+}